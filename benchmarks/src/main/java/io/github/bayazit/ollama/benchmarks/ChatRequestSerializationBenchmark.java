@@ -0,0 +1,54 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChatRequestSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int historySize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ChatRequest request;
+
+    @Setup
+    public void setUp() {
+        List<Message> messages = new ArrayList<>(historySize);
+        messages.add(Message.builder().role(Role.SYSTEM).content("You are a helpful assistant.").build());
+        for (int i = 1; i < historySize; i++) {
+            messages.add(Message.builder()
+                    .role(i % 2 == 1 ? Role.USER : Role.ASSISTANT)
+                    .content(Payloads.text(i, 400))
+                    .build());
+        }
+        request = ChatRequest.builder().model("llama3.2").messages(messages).stream(false).build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.client.OllamaStreamingClient;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import io.github.bayazit.ollama.testserver.FakeOllamaServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of a chat call against {@link FakeOllamaServer} over real sockets. With
+ * {@code tokensPerSecond=0} the result is pure client overhead; with a rate it shows whether the client
+ * adds latency on top of the generation time ({@code tokens / tokensPerSecond}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClientOverheadBenchmark {
+
+    @Param({"0", "2000"})
+    int tokensPerSecond;
+
+    @Param({"64"})
+    int tokens;
+
+    private FakeOllamaServer server;
+    private OllamaClient client;
+    private OllamaStreamingClient streamingClient;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = FakeOllamaServer.builder()
+                .tokens(tokens)
+                .tokensPerSecond(tokensPerSecond)
+                .maxParallel(Runtime.getRuntime().availableProcessors())
+                .build()
+                .start();
+        client = new OllamaClient(RestClient.builder().baseUrl(server.getBaseUrl()).build());
+        streamingClient = new OllamaStreamingClient(WebClient.create(server.getBaseUrl()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public ChatResponse blockingChat() {
+        return client.chat(request());
+    }
+
+    @Benchmark
+    public ChatResponse streamingChat() {
+        return streamingClient.chatStream(request()).blockLast();
+    }
+
+    private static ChatRequest request() {
+        return ChatRequest.builder()
+                .model("llama3.2")
+                .messages(List.of(Message.builder().role(Role.USER).content("hello").build()))
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import io.github.bayazit.ollama.client.GzipCompressionInterceptor;
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import io.github.bayazit.ollama.testserver.FakeOllamaServer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of gzip compression on a loopback round trip against {@link FakeOllamaServer}, which
+ * compresses responses like a reverse proxy would. Level 0 disables compression. Bytes on the wire are
+ * reported as the {@code requestBytes}, {@code responseBytes} and {@code calls} secondary results, so
+ * the bytes per call are {@code requestBytes / calls} and {@code responseBytes / calls}; weigh them
+ * against the link bandwidth to remote nodes to see where compression pays off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompressionBenchmark {
+
+    @Param({"0", "1", "6", "9"})
+    int level;
+
+    @Param({"chat", "embed"})
+    String payload;
+
+    private FakeOllamaServer server;
+    private OllamaClient client;
+    private ChatRequest chatRequest;
+    private EmbedRequest embedRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = FakeOllamaServer.builder().tokens(256).embeddingDimensions(768).gzip(level > 0).build().start();
+        RestClient.Builder builder = RestClient.builder().baseUrl(server.getBaseUrl());
+        if (level > 0) {
+            builder.requestInterceptor(new GzipCompressionInterceptor(Set.of(), 0, level, true));
+        }
+        client = new OllamaClient(builder.build());
+
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            history.add(Message.builder().role(i % 2 == 0 ? Role.USER : Role.ASSISTANT)
+                    .content(Payloads.text(i, 500)).build());
+        }
+        chatRequest = ChatRequest.builder().model("llama3.2").messages(history).build();
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            inputs.add(Payloads.text(i, 1000));
+        }
+        embedRequest = EmbedRequest.builder().model("nomic-embed-text").input(inputs).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Object roundTrip(Wire wire) {
+        return payload.equals("chat") ? client.chat(chatRequest) : client.embed(embedRequest);
+    }
+
+    /**
+     * Traffic seen by the server during the current iteration, read once the iteration has finished.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+
+        private FakeOllamaServer server;
+        private long requestBytesAtStart;
+        private long responseBytesAtStart;
+        private long callsAtStart;
+
+        @Setup(Level.Iteration)
+        public void reset(CompressionBenchmark benchmark) {
+            server = benchmark.server;
+            requestBytesAtStart = server.getRequestBytes();
+            responseBytesAtStart = server.getResponseBytes();
+            callsAtStart = totalCalls(server);
+        }
+
+        public long requestBytes() {
+            return server.getRequestBytes() - requestBytesAtStart;
+        }
+
+        public long responseBytes() {
+            return server.getResponseBytes() - responseBytesAtStart;
+        }
+
+        public long calls() {
+            return totalCalls(server) - callsAtStart;
+        }
+
+        private static long totalCalls(FakeOllamaServer server) {
+            return server.getRequestCount("/api/chat") + server.getRequestCount("/api/embed");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmbedResponseDeserializationBenchmark {
+
+    @Param({"384", "1024", "4096"})
+    int dimensions;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        json = Payloads.embeddingJson(dimensions, 7).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public EmbedResponse deserialize() throws Exception {
+        return objectMapper.readValue(json, EmbedResponse.class);
+    }
+}
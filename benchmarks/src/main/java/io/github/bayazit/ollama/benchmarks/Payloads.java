@@ -0,0 +1,63 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import java.util.Random;
+
+final class Payloads {
+
+    private static final String[] WORDS = {
+            "the", "model", "answers", "with", "a", "short", "summary", "of", "\"quoted\"", "text",
+            "including", "unicode", "caf\u00e9", "and", "newlines\n", "numbers", "42", "tokens"
+    };
+
+    private Payloads() {
+    }
+
+    /**
+     * Deterministic prose of roughly {@code length} characters, with characters that need JSON escaping.
+     */
+    static String text(long seed, int length) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    static String embeddingJson(int dimensions, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(dimensions * 22);
+        json.append("{\"model\":\"nomic-embed-text\",\"embeddings\":[[");
+        for (int i = 0; i < dimensions; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(random.nextGaussian() * 0.05);
+        }
+        return json.append("]]}").toString();
+    }
+
+    /**
+     * Vectors drawn around {@code clusters} fixed centroids, which resembles real embeddings more closely
+     * than isotropic noise. Centroids depend only on the dimensions, so different seeds give queries
+     * from the same distribution.
+     */
+    static float[][] vectors(int count, int dimensions, int clusters, long seed) {
+        Random centroidRandom = new Random(dimensions);
+        float[][] centroids = new float[clusters][dimensions];
+        for (float[] centroid : centroids) {
+            for (int i = 0; i < dimensions; i++) {
+                centroid[i] = (float) centroidRandom.nextGaussian();
+            }
+        }
+        Random random = new Random(seed);
+        float[][] vectors = new float[count][dimensions];
+        for (float[] vector : vectors) {
+            float[] centroid = centroids[random.nextInt(clusters)];
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = centroid[i] + (float) random.nextGaussian() * 0.5f;
+            }
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-chunk cost of decoding a streamed {@code /api/chat} NDJSON response, both with a bare
+ * {@link ObjectReader} and through the WebFlux decoder used by {@code OllamaStreamingClient}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StreamingDecodeBenchmark {
+
+    private static final int CHUNKS = 256;
+    private static final int NETWORK_READ_SIZE = 1024;
+
+    private final ObjectReader reader = new ObjectMapper().readerFor(ChatResponse.class);
+    private final Jackson2JsonDecoder decoder = new Jackson2JsonDecoder();
+    private final ResolvableType chatResponseType = ResolvableType.forClass(ChatResponse.class);
+    private byte[][] lines;
+    private byte[][] networkReads;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        lines = new byte[CHUNKS][];
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < CHUNKS; i++) {
+            boolean done = i == CHUNKS - 1;
+            ChatResponse.ChatResponseBuilder chunk = ChatResponse.builder()
+                    .model("llama3.2")
+                    .createdAt("2024-01-01T00:00:00.000000Z")
+                    .message(Message.builder().role(Role.ASSISTANT).content(Payloads.text(i, 6)).build())
+                    .done(done);
+            if (done) {
+                chunk.totalDuration(123_456_789L).promptEvalCount(26).evalCount(CHUNKS);
+            }
+            String line = objectMapper.writeValueAsString(chunk.build()) + "\n";
+            lines[i] = line.getBytes(StandardCharsets.UTF_8);
+            ndjson.append(line);
+        }
+        byte[] all = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        List<byte[]> reads = new ArrayList<>();
+        for (int offset = 0; offset < all.length; offset += NETWORK_READ_SIZE) {
+            reads.add(Arrays.copyOfRange(all, offset, Math.min(all.length, offset + NETWORK_READ_SIZE)));
+        }
+        networkReads = reads.toArray(new byte[0][]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNKS)
+    public void objectReaderPerLine(Blackhole blackhole) throws Exception {
+        for (byte[] line : lines) {
+            blackhole.consume(reader.readValue(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNKS)
+    public void webFluxNdjsonDecoder(Blackhole blackhole) {
+        Flux<DataBuffer> body = Flux.fromArray(networkReads)
+                .map(DefaultDataBufferFactory.sharedInstance::wrap);
+        decoder.decode(body, chatResponseType, MediaType.APPLICATION_NDJSON, Map.of())
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.bayazit.ollama.benchmarks;
+
+import io.github.bayazit.ollama.vector.BruteForceIndex;
+import io.github.bayazit.ollama.vector.HnswIndex;
+import io.github.bayazit.ollama.vector.SearchResult;
+import io.github.bayazit.ollama.vector.VectorSimilarity;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query throughput of exact and HNSW search over clustered vectors. The HNSW runs also count, as the
+ * {@code recalled} and {@code relevant} secondary results, how many of the exact top 10 they found, so
+ * recall@10 is {@code recalled / relevant}. {@code efSearch} only parameterizes the HNSW runs; HNSW build
+ * time is printed once per trial during setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VectorSearchBenchmark {
+
+    private static final int K = 10;
+    private static final int QUERIES = 256;
+    private static final int CLUSTERS = 256;
+
+    @State(Scope.Benchmark)
+    public static class Exact {
+
+        @Param({"10000", "100000"})
+        int size;
+
+        @Param({"384"})
+        int dimensions;
+
+        BruteForceIndex index;
+        float[][] queries;
+        int next;
+
+        @Setup
+        public void setUp() {
+            index = exact(Payloads.vectors(size, dimensions, CLUSTERS, 1), dimensions);
+            queries = Payloads.vectors(QUERIES, dimensions, CLUSTERS, 2);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Hnsw {
+
+        @Param({"10000", "100000"})
+        int size;
+
+        @Param({"384"})
+        int dimensions;
+
+        @Param({"16", "64", "256"})
+        int efSearch;
+
+        HnswIndex index;
+        float[][] queries;
+        int[][] expected;
+        int next;
+
+        @Setup
+        public void setUp() {
+            float[][] vectors = Payloads.vectors(size, dimensions, CLUSTERS, 1);
+            queries = Payloads.vectors(QUERIES, dimensions, CLUSTERS, 2);
+            BruteForceIndex exact = exact(vectors, dimensions);
+            expected = new int[QUERIES][];
+            for (int q = 0; q < QUERIES; q++) {
+                expected[q] = exact.search(queries[q], K).stream().mapToInt(SearchResult::getId).toArray();
+            }
+            index = new HnswIndex(dimensions, VectorSimilarity.COSINE, 16, 100, efSearch);
+            long start = System.nanoTime();
+            for (float[] vector : vectors) {
+                index.add(vector);
+            }
+            System.out.printf("%nHNSW build %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Recall {
+
+        public long recalled;
+        public long relevant;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            recalled = 0;
+            relevant = 0;
+        }
+    }
+
+    @Benchmark
+    public List<SearchResult> bruteForce(Exact state) {
+        return state.index.search(state.queries[state.next++ & (QUERIES - 1)], K);
+    }
+
+    @Benchmark
+    public List<SearchResult> hnsw(Hnsw state, Recall recall) {
+        int q = state.next++ & (QUERIES - 1);
+        List<SearchResult> results = state.index.search(state.queries[q], K);
+        for (SearchResult result : results) {
+            for (int id : state.expected[q]) {
+                if (result.getId() == id) {
+                    recall.recalled++;
+                    break;
+                }
+            }
+        }
+        recall.relevant += state.expected[q].length;
+        return results;
+    }
+
+    private static BruteForceIndex exact(float[][] vectors, int dimensions) {
+        BruteForceIndex exact = new BruteForceIndex(dimensions, VectorSimilarity.COSINE);
+        for (float[] vector : vectors) {
+            exact.add(vector);
+        }
+        return exact;
+    }
+}
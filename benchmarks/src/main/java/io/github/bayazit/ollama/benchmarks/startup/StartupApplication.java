@@ -0,0 +1,26 @@
+package io.github.bayazit.ollama.benchmarks.startup;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Starts a context with the Ollama auto-configuration, prints the startup time and exits. Run by
+ * {@code startup-benchmark.sh} on the JVM and as a native image.
+ */
+@SpringBootApplication
+public class StartupApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(StartupApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            context.getBean(OllamaClient.class);
+            System.out.println("startup-ms=" + ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+}
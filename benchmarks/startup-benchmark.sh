@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Compares JVM and native startup time and peak RSS of StartupApplication.
+#   mvn package                 -> target/benchmarks.jar
+#   mvn -Pnative native:compile -> target/startup-benchmark
+set -euo pipefail
+
+RUNS=${RUNS:-10}
+JAR=target/benchmarks.jar
+NATIVE=target/startup-benchmark
+MAIN=io.github.bayazit.ollama.benchmarks.startup.StartupApplication
+
+measure() {
+    local label=$1
+    shift
+    local total_ms=0 total_rss=0
+    for _ in $(seq "$RUNS"); do
+        local out
+        out=$( { /usr/bin/time -f 'rss-kb=%M' "$@" --logging.level.root=warn; } 2>&1 )
+        total_ms=$((total_ms + $(sed -n 's/^startup-ms=//p' <<< "$out")))
+        total_rss=$((total_rss + $(sed -n 's/^rss-kb=//p' <<< "$out")))
+    done
+    printf '%-6s startup=%d ms  rss=%d MB  (mean of %d runs)\n' \
+        "$label" $((total_ms / RUNS)) $((total_rss / RUNS / 1024)) "$RUNS"
+}
+
+[[ -f $JAR ]] && measure jvm java -cp "$JAR" "$MAIN"
+[[ -x $NATIVE ]] && measure native "$NATIVE"
@@ -0,0 +1,103 @@
+package io.github.bayazit.ollama.actuate;
+
+import io.github.bayazit.ollama.client.NodeMonitor;
+import io.github.bayazit.ollama.client.NodeState;
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.client.SlowRequestLog;
+import io.github.bayazit.ollama.model.RunningModel;
+import io.github.bayazit.ollama.scheduler.FairQueueScheduler;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code ollama} Actuator endpoint exposing the client's runtime state: the loaded models of every node as
+ * of the last {@link NodeMonitor} poll, live in-flight and queue counts, and the slow request log. Each
+ * section is omitted when its component is not configured.
+ */
+@Endpoint(id = "ollama")
+public class OllamaEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+    private final NodeMonitor nodeMonitor;
+    private final FairQueueScheduler scheduler;
+
+    public OllamaEndpoint(SlowRequestLog slowRequestLog, NodeMonitor nodeMonitor, FairQueueScheduler scheduler) {
+        this.slowRequestLog = slowRequestLog;
+        this.nodeMonitor = nodeMonitor;
+        this.scheduler = scheduler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> ollama() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        if (nodeMonitor != null) {
+            state.put("nodes", nodes());
+        }
+        if (scheduler != null) {
+            state.put("scheduler", scheduler());
+        }
+        if (slowRequestLog != null) {
+            state.put("slowRequests", slowRequests());
+        }
+        return state;
+    }
+
+    private Map<String, Object> nodes() {
+        Map<String, NodeState> states = nodeMonitor.getStates();
+        Map<String, Object> nodes = new LinkedHashMap<>();
+        nodeMonitor.getNodes().forEach((node, client) -> nodes.put(node, node(states.get(node), client)));
+        return nodes;
+    }
+
+    private static Map<String, Object> node(NodeState state, OllamaClient client) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("inFlight", client.getInFlight());
+        if (state == null) {
+            node.put("status", "UNKNOWN");
+            return node;
+        }
+        node.put("status", state.isUp() && !state.isStale() ? "UP" : "DOWN");
+        if (state.getError() != null) {
+            node.put("error", state.getError());
+        }
+        node.put("polledAt", state.getPolledAt());
+        node.put("pollDuration", state.getPollDuration());
+        node.put("memoryBytes", state.getMemoryBytes());
+        node.put("vramBytes", state.getVramBytes());
+        node.put("loadedModels", loadedModels(state.getLoadedModels()));
+        node.put("availableModels", state.getAvailableModels());
+        return node;
+    }
+
+    private static List<Map<String, Object>> loadedModels(List<RunningModel> models) {
+        return models.stream().map(model -> {
+            Map<String, Object> loaded = new LinkedHashMap<>();
+            loaded.put("name", model.getName());
+            loaded.put("sizeBytes", model.getSize());
+            loaded.put("vramBytes", model.getSizeVram());
+            loaded.put("expiresAt", model.getExpiresAt());
+            return loaded;
+        }).toList();
+    }
+
+    private Map<String, Object> scheduler() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("running", scheduler.getRunning());
+        state.put("queued", scheduler.getQueued());
+        state.put("classes", scheduler.getStats());
+        return state;
+    }
+
+    private Map<String, Object> slowRequests() {
+        Map<String, Object> slowRequests = new LinkedHashMap<>();
+        slowRequests.put("threshold", slowRequestLog.getThreshold());
+        slowRequests.put("sampleRate", slowRequestLog.getSampleRate());
+        slowRequests.put("count", slowRequestLog.getSlowRequests());
+        slowRequests.put("entries", slowRequestLog.getEntries());
+        return slowRequests;
+    }
+}
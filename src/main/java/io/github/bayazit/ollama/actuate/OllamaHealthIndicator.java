@@ -0,0 +1,47 @@
+package io.github.bayazit.ollama.actuate;
+
+import io.github.bayazit.ollama.client.NodeMonitor;
+import io.github.bayazit.ollama.client.NodeState;
+import io.github.bayazit.ollama.model.RunningModel;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Health of the Ollama nodes from the last {@link NodeMonitor} poll, so a health check never waits for
+ * the network. Up while at least one node answered and is not stale, down otherwise and unknown before the
+ * first poll.
+ */
+public class OllamaHealthIndicator implements HealthIndicator {
+
+    private final NodeMonitor monitor;
+
+    public OllamaHealthIndicator(NodeMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, NodeState> states = monitor.getStates();
+        if (states.isEmpty()) {
+            return Health.unknown().withDetail("reason", "Nodes have not been polled yet").build();
+        }
+        boolean anyUp = states.values().stream().anyMatch(state -> state.isUp() && !state.isStale());
+        Health.Builder health = anyUp ? Health.up() : Health.down();
+        states.forEach((node, state) -> health.withDetail(node, details(state)));
+        return health.build();
+    }
+
+    private static Map<String, Object> details(NodeState state) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("status", state.isUp() && !state.isStale() ? "UP" : "DOWN");
+        if (state.getError() != null) {
+            details.put("error", state.getError());
+        }
+        details.put("loadedModels", state.getLoadedModels().stream().map(RunningModel::getName).toList());
+        details.put("polledAt", state.getPolledAt());
+        return details;
+    }
+}
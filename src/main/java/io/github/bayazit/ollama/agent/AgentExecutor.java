@@ -0,0 +1,208 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import io.github.bayazit.ollama.model.Tool;
+import io.github.bayazit.ollama.model.ToolCall;
+import lombok.Builder;
+import lombok.Singular;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the tool-calling loop: sends the conversation with the tool definitions, executes the tool calls
+ * of each assistant turn and feeds their results back until the model answers without calling a tool.
+ * <p>
+ * The calls of one turn are independent by construction, so they run concurrently on the executor,
+ * at most {@code parallelism} at a time unless an executor is supplied. Their results are appended in
+ * call order. A failing or unknown tool does not end the run; its error is returned to the model as the
+ * tool result. The run stops after {@code maxSteps} model turns or once {@code timeout} has elapsed,
+ * whichever comes first; the time budget is checked before each turn and bounds the wait for tools.
+ */
+public class AgentExecutor {
+
+    private final ChatCall chat;
+    private final Map<String, AgentTool> tools = new LinkedHashMap<>();
+    private final int maxSteps;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final AgentListener listener;
+
+    @Builder
+    private AgentExecutor(OllamaClient client, ChatCall chat, @Singular List<AgentTool> tools,
+                          Integer maxSteps, Duration timeout, Integer parallelism, ExecutorService executor,
+                          AgentListener listener) {
+        if (client == null && chat == null) {
+            throw new IllegalArgumentException("client or chat is required");
+        }
+        this.chat = chat != null ? chat : ChatCall.blocking(client);
+        tools.forEach(tool -> this.tools.put(tool.getName(), tool));
+        this.maxSteps = maxSteps != null ? maxSteps : 10;
+        this.timeout = timeout;
+        this.listener = listener != null ? listener : AgentListener.NONE;
+        int threads = parallelism != null ? parallelism : 4;
+        if (this.maxSteps < 1) {
+            throw new IllegalArgumentException("maxSteps must be at least 1");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.executor = executor != null ? executor : newPool(threads);
+    }
+
+    public AgentResult run(ChatRequest request) {
+        return run(request, listener);
+    }
+
+    /**
+     * Runs the loop for {@code request}, whose messages are copied and not modified. Tools set on the
+     * request are sent instead of the registered definitions, but only registered tools can be executed.
+     */
+    public AgentResult run(ChatRequest request, AgentListener listener) {
+        long start = System.nanoTime();
+        long deadline = timeout != null ? start + timeout.toNanos() : Long.MAX_VALUE;
+        List<Tool> definitions = request.getTools() != null
+                ? request.getTools()
+                : tools.values().stream().map(AgentTool::getDefinition).toList();
+        List<Message> messages = new ArrayList<>(request.getMessages());
+
+        AgentResult.StopReason stopReason;
+        int steps = 0;
+        int toolCalls = 0;
+        long promptEvalCount = 0;
+        long evalCount = 0;
+        while (true) {
+            if (steps == maxSteps) {
+                stopReason = AgentResult.StopReason.MAX_STEPS;
+                break;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                stopReason = AgentResult.StopReason.TIMEOUT;
+                break;
+            }
+            int step = ++steps;
+            ChatResponse response = chat.chat(ChatRequest.builder()
+                    .model(request.getModel())
+                    .messages(new ArrayList<>(messages))
+                    .format(request.getFormat())
+                    .options(request.getOptions())
+                    .keepAlive(request.getKeepAlive())
+                    .tools(definitions.isEmpty() ? null : definitions)
+                    .build(), content -> listener.onContent(step, content));
+            Message assistant = response.getMessage();
+            if (assistant == null) {
+                throw new IllegalStateException("Chat response of step " + step + " has no message");
+            }
+            messages.add(assistant);
+            listener.onAssistantMessage(step, assistant);
+            promptEvalCount += response.getPromptEvalCount() != null ? response.getPromptEvalCount() : 0;
+            evalCount += response.getEvalCount() != null ? response.getEvalCount() : 0;
+
+            List<ToolCall> calls = assistant.getToolCalls();
+            if (calls == null || calls.isEmpty()) {
+                stopReason = AgentResult.StopReason.COMPLETED;
+                break;
+            }
+            toolCalls += calls.size();
+            if (!runTools(step, calls, messages, deadline, listener)) {
+                stopReason = AgentResult.StopReason.TIMEOUT;
+                break;
+            }
+        }
+        return AgentResult.builder()
+                .messages(messages)
+                .stopReason(stopReason)
+                .steps(steps)
+                .toolCalls(toolCalls)
+                .promptEvalCount(promptEvalCount)
+                .evalCount(evalCount)
+                .elapsed(Duration.ofNanos(System.nanoTime() - start))
+                .build();
+    }
+
+    /**
+     * Runs {@code calls} concurrently and appends their results in call order. Returns {@code false},
+     * after cancelling the calls still running, if the deadline passes first.
+     */
+    private boolean runTools(int step, List<ToolCall> calls, List<Message> messages, long deadline,
+                             AgentListener listener) {
+        List<Future<String>> futures = new ArrayList<>(calls.size());
+        for (ToolCall call : calls) {
+            futures.add(executor.submit(invocation(call)));
+        }
+        try {
+            for (int i = 0; i < calls.size(); i++) {
+                String content;
+                try {
+                    content = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    content = "Error: " + (cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                } catch (CancellationException | TimeoutException e) {
+                    return false;
+                }
+                ToolCall call = calls.get(i);
+                Message result = Message.builder()
+                        .role(Role.TOOL)
+                        .toolName(name(call))
+                        .content(content != null ? content : "")
+                        .build();
+                messages.add(result);
+                listener.onToolResult(step, call, result);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tool results", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Callable<String> invocation(ToolCall call) {
+        String name = name(call);
+        AgentTool tool = tools.get(name);
+        if (tool == null) {
+            return () -> "Error: unknown tool '" + name + "'";
+        }
+        Map<String, Object> arguments = call.getFunction().getArguments() != null
+                ? call.getFunction().getArguments()
+                : Map.of();
+        return () -> tool.getHandler().call(arguments);
+    }
+
+    private static String name(ToolCall call) {
+        return call.getFunction() != null ? call.getFunction().getName() : null;
+    }
+
+    /**
+     * Bounded pool whose daemon threads exit when idle, so an executor that is dropped without being
+     * shut down does not keep threads alive.
+     */
+    private static ExecutorService newPool(int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ollama-agent-tool");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.ToolCall;
+
+/**
+ * Receives the intermediate output of an {@link AgentExecutor} run as it happens. Steps are numbered
+ * from 1; all callbacks are made on the thread running the agent.
+ */
+public interface AgentListener {
+
+    AgentListener NONE = new AgentListener() {
+    };
+
+    /**
+     * Assistant content of {@code step}: token deltas with a streaming {@link ChatCall}, or the whole
+     * content once with a blocking one.
+     */
+    default void onContent(int step, String content) {
+    }
+
+    default void onAssistantMessage(int step, Message message) {
+    }
+
+    default void onToolResult(int step, ToolCall call, Message result) {
+    }
+}
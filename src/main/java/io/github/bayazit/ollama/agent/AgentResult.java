@@ -0,0 +1,56 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+@Value
+@Builder
+public class AgentResult {
+
+    public enum StopReason {
+
+        /**
+         * The model answered without calling a tool.
+         */
+        COMPLETED,
+
+        /**
+         * The step budget ran out while the model was still calling tools.
+         */
+        MAX_STEPS,
+
+        /**
+         * The time budget ran out; unfinished tool calls were cancelled.
+         */
+        TIMEOUT
+    }
+
+    /**
+     * The request messages followed by every assistant and tool message of the run.
+     */
+    List<Message> messages;
+
+    StopReason stopReason;
+    int steps;
+    int toolCalls;
+    long promptEvalCount;
+    long evalCount;
+    Duration elapsed;
+
+    /**
+     * Last assistant message, or {@code null} if the model was never called.
+     */
+    public Message getFinalMessage() {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getRole() == Role.ASSISTANT) {
+                return messages.get(i);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.model.Tool;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Tool definition sent to the model together with the handler that executes its calls.
+ */
+@Value
+public class AgentTool {
+
+    Tool definition;
+    ToolHandler handler;
+
+    public static AgentTool of(String name, String description, Map<String, Object> parameters,
+                               ToolHandler handler) {
+        return new AgentTool(Tool.function(name, description, parameters), handler);
+    }
+
+    public String getName() {
+        return definition.getFunction().getName();
+    }
+}
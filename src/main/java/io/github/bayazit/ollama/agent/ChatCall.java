@@ -0,0 +1,31 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.ChatResponse;
+
+import java.util.function.Consumer;
+
+/**
+ * One model turn of an agent run. Returns the complete response and passes assistant content to
+ * {@code onContent} as it becomes available.
+ */
+@FunctionalInterface
+public interface ChatCall {
+
+    ChatResponse chat(ChatRequest request, Consumer<String> onContent);
+
+    /**
+     * Non-streaming turn through {@code /api/chat}; see {@link ReactiveAgent#streaming} for token streaming.
+     */
+    static ChatCall blocking(OllamaClient client) {
+        return (request, onContent) -> {
+            ChatResponse response = client.chat(request);
+            if (response.getMessage() != null && response.getMessage().getContent() != null
+                    && !response.getMessage().getContent().isEmpty()) {
+                onContent.accept(response.getMessage().getContent());
+            }
+            return response;
+        };
+    }
+}
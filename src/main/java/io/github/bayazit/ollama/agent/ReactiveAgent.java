@@ -0,0 +1,73 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.client.OllamaStreamingClient;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import io.github.bayazit.ollama.model.ToolCall;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reactor support for {@link AgentExecutor}, kept separate so the executor itself does not require
+ * Reactor on the classpath.
+ */
+public final class ReactiveAgent {
+
+    private ReactiveAgent() {
+    }
+
+    /**
+     * Turn that streams {@code /api/chat}, passing each content delta on as it arrives and blocking
+     * until the stream completes. The chunks are merged into one response: the content concatenated,
+     * the tool calls of all chunks collected and the statistics taken from the final chunk.
+     */
+    public static ChatCall streaming(OllamaStreamingClient client) {
+        return (request, onContent) -> client.chatStream(request)
+                .doOnNext(chunk -> {
+                    Message message = chunk.getMessage();
+                    if (message != null && message.getContent() != null && !message.getContent().isEmpty()) {
+                        onContent.accept(message.getContent());
+                    }
+                })
+                .collectList()
+                .map(ReactiveAgent::merge)
+                .block();
+    }
+
+    static ChatResponse merge(List<ChatResponse> chunks) {
+        StringBuilder content = new StringBuilder();
+        List<ToolCall> toolCalls = new ArrayList<>();
+        ChatResponse last = null;
+        for (ChatResponse chunk : chunks) {
+            Message message = chunk.getMessage();
+            if (message != null && message.getContent() != null) {
+                content.append(message.getContent());
+            }
+            if (message != null && message.getToolCalls() != null) {
+                toolCalls.addAll(message.getToolCalls());
+            }
+            last = chunk;
+        }
+        if (last == null) {
+            throw new IllegalStateException("Chat stream completed without a response");
+        }
+        return ChatResponse.builder()
+                .model(last.getModel())
+                .createdAt(last.getCreatedAt())
+                .message(Message.builder()
+                        .role(Role.ASSISTANT)
+                        .content(content.toString())
+                        .toolCalls(toolCalls.isEmpty() ? null : toolCalls)
+                        .build())
+                .done(last.getDone())
+                .totalDuration(last.getTotalDuration())
+                .loadDuration(last.getLoadDuration())
+                .promptEvalCount(last.getPromptEvalCount())
+                .promptEvalDuration(last.getPromptEvalDuration())
+                .evalCount(last.getEvalCount())
+                .evalDuration(last.getEvalDuration())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.bayazit.ollama.agent;
+
+import java.util.Map;
+
+/**
+ * Runs a tool with the arguments the model supplied and returns the result as text for the model.
+ * Handlers of one assistant turn run concurrently and must be thread-safe.
+ */
+@FunctionalInterface
+public interface ToolHandler {
+
+    String call(Map<String, Object> arguments) throws Exception;
+}
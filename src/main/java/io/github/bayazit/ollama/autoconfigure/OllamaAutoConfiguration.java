@@ -1,66 +1,294 @@
 package io.github.bayazit.ollama.autoconfigure;
 
+import io.github.bayazit.ollama.actuate.OllamaEndpoint;
+import io.github.bayazit.ollama.actuate.OllamaHealthIndicator;
+import io.github.bayazit.ollama.agent.AgentExecutor;
+import io.github.bayazit.ollama.agent.AgentListener;
+import io.github.bayazit.ollama.agent.AgentTool;
+import io.github.bayazit.ollama.client.GzipCompressionFilter;
+import io.github.bayazit.ollama.client.GzipCompressionInterceptor;
+import io.github.bayazit.ollama.client.NodeMonitor;
 import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.client.OllamaNodes;
 import io.github.bayazit.ollama.client.OllamaStreamingClient;
+import io.github.bayazit.ollama.client.RequestTimingListener;
+import io.github.bayazit.ollama.client.SlowRequestLog;
+import io.github.bayazit.ollama.image.ImageAttachments;
+import io.github.bayazit.ollama.image.ImageCache;
+import io.github.bayazit.ollama.image.ImageProcessor;
+import io.github.bayazit.ollama.prefix.PrefixRegistry;
+import io.github.bayazit.ollama.prefix.PrefixRouter;
+import io.github.bayazit.ollama.ratelimit.TokenEstimator;
+import io.github.bayazit.ollama.ratelimit.TokenLimit;
+import io.github.bayazit.ollama.ratelimit.TokenRateLimiter;
+import io.github.bayazit.ollama.scheduler.FairQueueScheduler;
+import io.github.bayazit.ollama.scheduler.PriorityClass;
+import io.github.bayazit.ollama.vector.EmbeddingQuantizer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @AutoConfiguration
 @EnableConfigurationProperties(OllamaProperties.class)
 @ConditionalOnClass(RestClient.class)
+@ImportRuntimeHints(OllamaRuntimeHints.class)
 public class OllamaAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(name = "ollamaRestClient")
     public RestClient ollamaRestClient(OllamaProperties properties) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout((int) properties.getTimeout().toMillis());
-        factory.setReadTimeout((int) properties.getTimeout().toMillis());
+        return restClient(properties, properties.getBaseUrl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OllamaClient ollamaClient(RestClient ollamaRestClient,
+                                     ObjectProvider<RequestTimingListener> timingListeners) {
+        return new OllamaClient(ollamaRestClient, RequestTimingListener.of(timingListeners.orderedStream().toList()));
+    }
+
+    /**
+     * The primary client plus one client per additional node in {@code ollama.nodes}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OllamaNodes ollamaNodes(OllamaProperties properties, OllamaClient ollamaClient,
+                                   ObjectProvider<RequestTimingListener> timingListeners) {
+        RequestTimingListener timingListener = RequestTimingListener.of(timingListeners.orderedStream().toList());
+        Map<String, OllamaClient> nodes = new LinkedHashMap<>();
+        nodes.put(properties.getBaseUrl(), ollamaClient);
+        for (String node : properties.getNodes()) {
+            nodes.putIfAbsent(node, new OllamaClient(restClient(properties, node), timingListener));
+        }
+        return new OllamaNodes(nodes);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ollama.slow-requests", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowRequestLog ollamaSlowRequestLog(OllamaProperties properties) {
+        OllamaProperties.SlowRequests slowRequests = properties.getSlowRequests();
+        return new SlowRequestLog(slowRequests.getThreshold(), slowRequests.getCapacity(),
+                slowRequests.getSampleRate());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ollama.scheduler", name = "enabled", havingValue = "true")
+    public FairQueueScheduler ollamaFairQueueScheduler(OllamaProperties properties) {
+        OllamaProperties.Scheduler scheduler = properties.getScheduler();
+        List<PriorityClass> classes = new ArrayList<>();
+        scheduler.getClasses().forEach((name, priorityClass) -> classes.add(PriorityClass.builder()
+                .name(name)
+                .priority(priorityClass.getPriority())
+                .weight(priorityClass.getWeight())
+                .maxConcurrency(priorityClass.getMaxConcurrency())
+                .build()));
+        if (!scheduler.getClasses().containsKey(scheduler.getDefaultClass())) {
+            classes.add(PriorityClass.builder().name(scheduler.getDefaultClass()).build());
+        }
+        return new FairQueueScheduler(scheduler.getMaxConcurrency(), classes, scheduler.getDefaultClass());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ollama.rate-limit", name = "enabled", havingValue = "true")
+    public TokenRateLimiter ollamaTokenRateLimiter(OllamaProperties properties) {
+        OllamaProperties.RateLimit rateLimit = properties.getRateLimit();
+        return new TokenRateLimiter(
+                TokenLimit.builder()
+                        .tokensPerSecond(rateLimit.getTokensPerSecond())
+                        .burst(rateLimit.getBurst())
+                        .build(),
+                rateLimit.getLimits(),
+                new TokenEstimator(rateLimit.getCharsPerToken(), rateLimit.getDefaultCompletionTokens()),
+                rateLimit.getMaxWait());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ollama.embedding", name = "quantization")
+    public EmbeddingQuantizer ollamaEmbeddingQuantizer(OllamaProperties properties) {
+        OllamaProperties.Embedding embedding = properties.getEmbedding();
+        return new EmbeddingQuantizer(embedding.getQuantization(), embedding.isNormalize());
+    }
 
-        return RestClient.builder()
-                .baseUrl(properties.getBaseUrl())
-                .requestFactory(factory)
+    @Bean
+    @ConditionalOnMissingBean
+    public ImageAttachments ollamaImageAttachments(OllamaProperties properties) {
+        OllamaProperties.Images images = properties.getImages();
+        ImageProcessor processor = images.getMaxDimension() > 0 || images.getRecompressAbove().toBytes() > 0
+                ? new ImageProcessor(images.getMaxDimension(), images.getRecompressAbove().toBytes(), images.getQuality())
+                : null;
+        ImageCache cache = images.getCacheSize().toBytes() > 0 ? new ImageCache(images.getCacheSize().toBytes()) : null;
+        return new ImageAttachments(processor, cache);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(AgentTool.class)
+    public AgentExecutor ollamaAgentExecutor(OllamaProperties properties, OllamaClient ollamaClient,
+                                             ObjectProvider<AgentTool> tools,
+                                             ObjectProvider<AgentListener> listener) {
+        OllamaProperties.Agent agent = properties.getAgent();
+        return AgentExecutor.builder()
+                .client(ollamaClient)
+                .tools(tools.orderedStream().toList())
+                .maxSteps(agent.getMaxSteps())
+                .timeout(agent.getTimeout())
+                .parallelism(agent.getParallelism())
+                .listener(listener.getIfUnique())
                 .build();
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public OllamaClient ollamaClient(RestClient ollamaRestClient) {
-        return new OllamaClient(ollamaRestClient);
+    @ConditionalOnProperty(prefix = "ollama.prefix", name = "enabled", havingValue = "true")
+    public PrefixRouter ollamaPrefixRouter(OllamaProperties properties, OllamaNodes ollamaNodes) {
+        OllamaProperties.Prefix prefix = properties.getPrefix();
+        PrefixRegistry registry = new PrefixRegistry(prefix.getBlockSize(), prefix.getMinOccurrences(),
+                prefix.getMaxTracked());
+        prefix.getDeclared().forEach((id, declared) -> registry.declare(id,
+                StringUtils.hasText(declared.getModel()) ? declared.getModel() : null,
+                declared.getSystem(), declared.getPrompt()));
+
+        return PrefixRouter.builder()
+                .nodes(ollamaNodes.getClients())
+                .registry(registry)
+                .keepAlive(prefix.getKeepAlive())
+                .speculative(prefix.isSpeculative())
+                .controlFraction(prefix.getControlFraction())
+                .build();
+    }
+
+    private static RestClient restClient(OllamaProperties properties, String baseUrl) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) properties.getTimeout().toMillis());
+        factory.setReadTimeout((int) properties.getTimeout().toMillis());
+
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(factory);
+        OllamaProperties.Compression compression = properties.getCompression();
+        if (compression.isEnabled()) {
+            builder.requestInterceptor(new GzipCompressionInterceptor(compression.getPaths(),
+                    (int) compression.getThreshold().toBytes(), compression.getLevel(),
+                    compression.isDecompressResponses()));
+        }
+        return builder.build();
     }
 
     @Configuration
     @ConditionalOnClass(WebClient.class)
     static class WebClientConfiguration {
 
+        /**
+         * Lazy so that Reactor Netty is only initialized on the first streaming call.
+         */
         @Bean
+        @Lazy
         @ConditionalOnMissingBean(name = "ollamaWebClient")
         public WebClient ollamaWebClient(OllamaProperties properties) {
             Duration timeout = properties.getTimeout();
+            OllamaProperties.Compression compression = properties.getCompression();
             HttpClient httpClient = HttpClient.create()
-                    .responseTimeout(timeout);
+                    .responseTimeout(timeout)
+                    .compress(compression.isEnabled() && compression.isDecompressResponses());
 
-            return WebClient.builder()
+            WebClient.Builder builder = WebClient.builder()
                     .baseUrl(properties.getBaseUrl())
-                    .clientConnector(new ReactorClientHttpConnector(httpClient))
-                    .build();
+                    .clientConnector(new ReactorClientHttpConnector(httpClient));
+            if (compression.isEnabled()) {
+                builder.filter(new GzipCompressionFilter(compression.getPaths(),
+                        (int) compression.getThreshold().toBytes(), compression.getLevel()));
+            }
+            return builder.build();
         }
 
         @Bean
         @ConditionalOnMissingBean
-        public OllamaStreamingClient ollamaStreamingClient(WebClient ollamaWebClient) {
-            return new OllamaStreamingClient(ollamaWebClient);
+        public OllamaStreamingClient ollamaStreamingClient(
+                @Qualifier("ollamaWebClient") ObjectProvider<WebClient> ollamaWebClient,
+                ObjectProvider<RequestTimingListener> timingListeners) {
+            return new OllamaStreamingClient(ollamaWebClient::getObject,
+                    RequestTimingListener.of(timingListeners.orderedStream().toList()));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(Endpoint.class)
+    static class ActuatorConfiguration {
+
+        @Bean(initMethod = "start")
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "ollama.monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+        @Conditional(OnNodeMonitorReader.class)
+        public NodeMonitor ollamaNodeMonitor(OllamaProperties properties, OllamaNodes ollamaNodes) {
+            OllamaProperties.Monitor monitor = properties.getMonitor();
+            return new NodeMonitor(ollamaNodes.getClients(), monitor.getInterval(), monitor.getTimeout(),
+                    monitor.getStaleAfter());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public OllamaEndpoint ollamaEndpoint(ObjectProvider<SlowRequestLog> slowRequestLog,
+                                             ObjectProvider<NodeMonitor> nodeMonitor,
+                                             ObjectProvider<FairQueueScheduler> scheduler) {
+            return new OllamaEndpoint(slowRequestLog.getIfAvailable(), nodeMonitor.getIfAvailable(),
+                    scheduler.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(name = "ollamaHealthIndicator")
+        @ConditionalOnEnabledHealthIndicator("ollama")
+        @ConditionalOnBean(NodeMonitor.class)
+        public OllamaHealthIndicator ollamaHealthIndicator(NodeMonitor nodeMonitor) {
+            return new OllamaHealthIndicator(nodeMonitor);
+        }
+
+        /**
+         * Matches when something reads the monitor's states, so the nodes are not polled for nothing.
+         */
+        static class OnNodeMonitorReader extends AnyNestedCondition {
+
+            OnNodeMonitorReader() {
+                super(ConfigurationPhase.REGISTER_BEAN);
+            }
+
+            @ConditionalOnAvailableEndpoint(endpoint = OllamaEndpoint.class)
+            static class EndpointAvailable {
+            }
+
+            @ConditionalOnEnabledHealthIndicator("ollama")
+            static class HealthIndicatorEnabled {
+            }
         }
     }
 }
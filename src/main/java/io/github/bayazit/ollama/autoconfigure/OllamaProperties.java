@@ -1,10 +1,20 @@
 package io.github.bayazit.ollama.autoconfigure;
 
 import io.github.bayazit.ollama.model.OllamaOptions;
+import io.github.bayazit.ollama.ratelimit.TokenLimit;
+import io.github.bayazit.ollama.scheduler.PriorityClass;
+import io.github.bayazit.ollama.vector.Quantization;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Data
 @ConfigurationProperties(prefix = "ollama")
@@ -15,6 +25,12 @@ public class OllamaProperties {
      */
     private String baseUrl = "http://localhost:11434";
 
+    /**
+     * Base URLs of additional Ollama nodes serving the same models, used by prefix-affinity routing and
+     * node monitoring.
+     */
+    private List<String> nodes = new ArrayList<>();
+
     /**
      * Default model name.
      */
@@ -29,4 +45,312 @@ public class OllamaProperties {
      * Default generation options.
      */
     private OllamaOptions options;
+
+    /**
+     * Log of slow requests with their timing breakdown.
+     */
+    private final SlowRequests slowRequests = new SlowRequests();
+
+    @Data
+    public static class SlowRequests {
+
+        /**
+         * Whether to keep a log of slow requests.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Client-side duration at or above which a request is logged.
+         */
+        private Duration threshold = Duration.ofSeconds(10);
+
+        /**
+         * Number of most recent slow requests kept.
+         */
+        private int capacity = 100;
+
+        /**
+         * Fraction of slow requests that is logged.
+         */
+        private double sampleRate = 1.0;
+    }
+
+    /**
+     * Background polling of node state for the Actuator endpoint and health indicator.
+     */
+    private final Monitor monitor = new Monitor();
+
+    @Data
+    public static class Monitor {
+
+        /**
+         * Whether to poll the nodes when the {@code ollama} endpoint is exposed or the {@code ollama}
+         * health indicator is enabled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay between the end of one poll and the start of the next.
+         */
+        private Duration interval = Duration.ofSeconds(15);
+
+        /**
+         * How long one poll waits for the nodes to answer; nodes that do not keep their last known state, with
+         * the missed poll as its error.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        /**
+         * Polls in a row a node may miss before its last known state is marked stale and reported as down.
+         */
+        private int staleAfter = 3;
+    }
+
+    /**
+     * Client-side priority scheduling of requests.
+     */
+    private final Scheduler scheduler = new Scheduler();
+
+    @Data
+    public static class Scheduler {
+
+        /**
+         * Whether to create a fair-queuing request scheduler.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of concurrently running requests across all priority classes.
+         */
+        private int maxConcurrency = 4;
+
+        /**
+         * Priority class used for requests that do not name one.
+         */
+        private String defaultClass = "default";
+
+        /**
+         * Priority classes by name.
+         */
+        private Map<String, PriorityClass> classes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Token-based rate limiting.
+     */
+    private final RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Whether to create a token rate limiter.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Sustained prompt plus generated tokens per second for each key without its own limit.
+         */
+        private double tokensPerSecond = 1000;
+
+        /**
+         * Tokens a key can spend at once after being idle.
+         */
+        private long burst = 4000;
+
+        /**
+         * Maximum time to wait for budget before rejecting a request.
+         */
+        private Duration maxWait = Duration.ZERO;
+
+        /**
+         * Average characters per token used to estimate prompt size.
+         */
+        private double charsPerToken = 4.0;
+
+        /**
+         * Completion tokens assumed for requests that do not set num_predict.
+         */
+        private int defaultCompletionTokens = 256;
+
+        /**
+         * Per-key limits overriding the defaults.
+         */
+        private Map<String, TokenLimit> limits = new LinkedHashMap<>();
+    }
+
+    /**
+     * Post-processing of embeddings.
+     */
+    private final Embedding embedding = new Embedding();
+
+    @Data
+    public static class Embedding {
+
+        /**
+         * Encoding for quantized embeddings. When set, an EmbeddingQuantizer bean is created.
+         */
+        private Quantization quantization;
+
+        /**
+         * Whether to L2-normalize embeddings before quantizing them.
+         */
+        private boolean normalize = true;
+    }
+
+    /**
+     * Handling of image attachments.
+     */
+    private final Images images = new Images();
+
+    @Data
+    public static class Images {
+
+        /**
+         * Longest side in pixels images are downscaled to before upload, or 0 to keep the size.
+         */
+        private int maxDimension = 0;
+
+        /**
+         * Size above which images are re-encoded as JPEG, or 0 to re-encode only downscaled images.
+         */
+        private DataSize recompressAbove = DataSize.ofBytes(0);
+
+        /**
+         * JPEG quality between 0 and 1 for downscaled or re-encoded images.
+         */
+        private float quality = 0.85f;
+
+        /**
+         * Total size of base64-encoded images cached by content hash, or 0 to disable the cache.
+         */
+        private DataSize cacheSize = DataSize.ofBytes(0);
+    }
+
+    /**
+     * HTTP compression, for servers reached through a gzip-capable reverse proxy.
+     */
+    private final Compression compression = new Compression();
+
+    @Data
+    public static class Compression {
+
+        /**
+         * Whether to gzip request bodies and accept gzip responses.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Minimum request body size to compress.
+         */
+        private DataSize threshold = DataSize.ofKilobytes(8);
+
+        /**
+         * Deflate level from 1 (fastest) to 9 (smallest).
+         */
+        private int level = 6;
+
+        /**
+         * Request paths whose bodies are compressed; empty for all.
+         */
+        private Set<String> paths = new LinkedHashSet<>(List.of("/api/chat", "/api/generate", "/api/embed"));
+
+        /**
+         * Whether to send Accept-Encoding: gzip and decompress responses.
+         */
+        private boolean decompressResponses = true;
+    }
+
+    /**
+     * Tool-calling agent loop.
+     */
+    private final Agent agent = new Agent();
+
+    @Data
+    public static class Agent {
+
+        /**
+         * Maximum number of model turns per run.
+         */
+        private int maxSteps = 10;
+
+        /**
+         * Time budget per run; unset for none.
+         */
+        private Duration timeout;
+
+        /**
+         * Maximum number of tool calls executed concurrently.
+         */
+        private int parallelism = 4;
+    }
+
+    /**
+     * Routing of generate requests that share a prompt prefix.
+     */
+    private final Prefix prefix = new Prefix();
+
+    @Data
+    public static class Prefix {
+
+        /**
+         * Whether to create a prefix-affinity router over the base URL and the additional nodes.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Declared shared prefixes by id.
+         */
+        private Map<String, DeclaredPrefix> declared = new LinkedHashMap<>();
+
+        /**
+         * Granularity in characters at which shared prompt prefixes are detected.
+         */
+        private int blockSize = 512;
+
+        /**
+         * Requests that must share a prefix before it is detected, or 0 to only use declared prefixes.
+         */
+        private int minOccurrences = 3;
+
+        /**
+         * Maximum number of candidate and detected prefixes to track; the least recently seen are evicted.
+         */
+        private int maxTracked = 4096;
+
+        /**
+         * keep_alive sent with prefixed requests, and how long a node is considered warm after
+         * evaluating a prefix.
+         */
+        private Duration keepAlive = Duration.ofMinutes(30);
+
+        /**
+         * Whether to pre-evaluate a prefix on all other nodes after its first evaluation.
+         */
+        private boolean speculative = true;
+
+        /**
+         * Fraction of prefixed requests routed without affinity as a baseline for the statistics.
+         */
+        private double controlFraction = 0;
+    }
+
+    @Data
+    public static class DeclaredPrefix {
+
+        /**
+         * Model the prefix applies to; empty for all models.
+         */
+        private String model;
+
+        /**
+         * Exact system prompt of matching requests.
+         */
+        private String system;
+
+        /**
+         * Text matching prompts start with.
+         */
+        private String prompt;
+    }
 }
@@ -0,0 +1,89 @@
+package io.github.bayazit.ollama.autoconfigure;
+
+import io.github.bayazit.ollama.batch.BatchRecord;
+import io.github.bayazit.ollama.batch.BatchRecordType;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.DeleteRequest;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import io.github.bayazit.ollama.model.GenerateResponse;
+import io.github.bayazit.ollama.model.ImageAttachment;
+import io.github.bayazit.ollama.model.ImageEncoder;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.ModelInfo;
+import io.github.bayazit.ollama.model.ModelList;
+import io.github.bayazit.ollama.model.OllamaOptions;
+import io.github.bayazit.ollama.model.PullRequest;
+import io.github.bayazit.ollama.model.PullResponse;
+import io.github.bayazit.ollama.model.RequestTiming;
+import io.github.bayazit.ollama.model.Role;
+import io.github.bayazit.ollama.model.RunningModel;
+import io.github.bayazit.ollama.model.RunningModelList;
+import io.github.bayazit.ollama.model.Tool;
+import io.github.bayazit.ollama.model.ToolCall;
+import io.github.bayazit.ollama.model.ToolCallFunction;
+import io.github.bayazit.ollama.model.ToolFunction;
+import io.github.bayazit.ollama.model.json.ChatResponseDeserializer;
+import io.github.bayazit.ollama.model.json.GenerateResponseDeserializer;
+import io.github.bayazit.ollama.model.json.MessageDeserializer;
+import io.github.bayazit.ollama.model.json.MessageSerializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Native-image hints for the Jackson-bound API types. Native images cannot scan packages, so every
+ * model class is listed explicitly; add new model classes here as well.
+ */
+class OllamaRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> MODEL_TYPES = List.of(
+            ChatRequest.class,
+            ChatResponse.class,
+            DeleteRequest.class,
+            EmbedRequest.class,
+            EmbedResponse.class,
+            GenerateRequest.class,
+            GenerateResponse.class,
+            ImageAttachment.class,
+            ImageEncoder.class,
+            Message.class,
+            ModelInfo.class,
+            ModelList.class,
+            OllamaOptions.class,
+            PullRequest.class,
+            PullResponse.class,
+            RequestTiming.class,
+            Role.class,
+            RunningModel.class,
+            RunningModelList.class,
+            Tool.class,
+            ToolCall.class,
+            ToolCallFunction.class,
+            ToolFunction.class,
+            BatchRecord.class,
+            BatchRecordType.class);
+
+    static final List<Class<?>> JSON_CODECS = List.of(
+            ChatResponseDeserializer.class,
+            GenerateResponseDeserializer.class,
+            MessageDeserializer.class,
+            MessageSerializer.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : MODEL_TYPES) {
+            hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        for (Class<?> codec : JSON_CODECS) {
+            hints.reflection().registerType(codec, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
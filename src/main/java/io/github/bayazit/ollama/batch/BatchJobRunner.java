@@ -0,0 +1,434 @@
+package io.github.bayazit.ollama.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import io.github.bayazit.ollama.model.GenerateResponse;
+import lombok.Builder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Runs a JSONL file of {@link BatchRecord}s against Ollama and writes one JSONL result line per record.
+ * <p>
+ * The input is streamed in windows of {@code windowSize} records. Within a window records are grouped
+ * by model so consecutive requests hit an already loaded model, and embed records of the same model,
+ * truncation and options are merged into a single {@code /api/embed} call of up to {@code embedBatchSize}
+ * inputs. At most {@code concurrency} calls run at once with as many queued behind them, which keeps the
+ * server busy without reading the whole file into memory.
+ * <p>
+ * Every successful record id is appended to the progress log after its result line is flushed. A rerun
+ * with the same progress log skips those ids, so a crashed job resumes with at-least-once output: a
+ * record that completed just before the crash may appear twice in the output, and failed records are
+ * retried on the next run.
+ */
+public class BatchJobRunner {
+
+    private final OllamaClient client;
+    private final ObjectMapper objectMapper;
+    private final int concurrency;
+    private final int windowSize;
+    private final int embedBatchSize;
+
+    @Builder
+    private BatchJobRunner(OllamaClient client, ObjectMapper objectMapper, Integer concurrency,
+                           Integer windowSize, Integer embedBatchSize) {
+        if (client == null) {
+            throw new IllegalArgumentException("client is required");
+        }
+        this.client = client;
+        this.objectMapper = objectMapper != null ? objectMapper : new ObjectMapper();
+        this.concurrency = concurrency != null ? concurrency : 4;
+        this.windowSize = windowSize != null ? windowSize : 1000;
+        this.embedBatchSize = embedBatchSize != null ? embedBatchSize : 64;
+    }
+
+    public BatchReport run(Path input, Path output, Path progressLog) throws IOException {
+        Set<String> completed = readProgress(progressLog);
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        Semaphore slots = new Semaphore(concurrency * 2);
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             ResultWriter writer = new ResultWriter(output, progressLog)) {
+            List<BatchRecord> window = new ArrayList<>(windowSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                BatchRecord record;
+                try {
+                    record = objectMapper.readValue(line, BatchRecord.class);
+                } catch (JsonProcessingException e) {
+                    String id = "line-" + lineNumber;
+                    stats.records.increment();
+                    stats.model("unknown").failed(0);
+                    writer.failure(id, "Invalid record: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (record.getId() == null) {
+                    record.setId("line-" + lineNumber);
+                }
+                if (completed.contains(record.getId())) {
+                    stats.skipped.increment();
+                    continue;
+                }
+                stats.records.increment();
+                String invalid = validate(record);
+                if (invalid != null) {
+                    stats.model("unknown").failed(0);
+                    writer.failure(record.getId(), "Invalid record: " + invalid);
+                    continue;
+                }
+                window.add(record);
+                if (window.size() == windowSize) {
+                    dispatch(window, pool, slots, writer, stats);
+                    window = new ArrayList<>(windowSize);
+                }
+            }
+            dispatch(window, pool, slots, writer, stats);
+            pool.shutdown();
+            awaitTermination(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+        return stats.report(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Checks what {@link #dispatch} and {@link #process} rely on, so that a bad line fails on its own
+     * instead of on the reader thread. Returns why {@code record} is invalid, or {@code null}.
+     */
+    private static String validate(BatchRecord record) {
+        if (record.getType() == null) {
+            return "missing type";
+        }
+        if (record.getRequest() == null || !record.getRequest().isObject()) {
+            return "missing request object";
+        }
+        if (record.getType() == BatchRecordType.EMBED && !record.getRequest().path("input").isArray()) {
+            return "embed request input must be an array";
+        }
+        return null;
+    }
+
+    private void dispatch(List<BatchRecord> window, ExecutorService pool, Semaphore slots,
+                          ResultWriter writer, Stats stats) {
+        Map<String, List<BatchRecord>> byModel = new TreeMap<>();
+        for (BatchRecord record : window) {
+            String model = record.getRequest().path("model").asText("");
+            byModel.computeIfAbsent(model, k -> new ArrayList<>()).add(record);
+        }
+        byModel.forEach((model, records) -> {
+            Map<List<JsonNode>, EmbedUnit> embeds = new LinkedHashMap<>();
+            for (BatchRecord record : records) {
+                if (record.getType() != BatchRecordType.EMBED) {
+                    submit(List.of(record), model, pool, slots, writer, stats);
+                    continue;
+                }
+                // Only records with the same settings can share a call, which sends them once for all inputs
+                List<JsonNode> settings = List.of(record.getRequest().path("truncate"),
+                        record.getRequest().path("options"));
+                EmbedUnit unit = embeds.computeIfAbsent(settings, k -> new EmbedUnit());
+                unit.records.add(record);
+                unit.inputs += Math.max(1, record.getRequest().path("input").size());
+                if (unit.inputs >= embedBatchSize) {
+                    submit(unit.records, model, pool, slots, writer, stats);
+                    embeds.remove(settings);
+                }
+            }
+            embeds.values().forEach(unit -> submit(unit.records, model, pool, slots, writer, stats));
+        });
+    }
+
+    private void submit(List<BatchRecord> unit, String model, ExecutorService pool, Semaphore slots,
+                        ResultWriter writer, Stats stats) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scheduling batch records", e);
+        }
+        pool.execute(() -> {
+            try {
+                process(unit, model, writer, stats);
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    private void process(List<BatchRecord> unit, String model, ResultWriter writer, Stats stats) {
+        ModelAccumulator accumulator = stats.model(model);
+        long start = System.nanoTime();
+        try {
+            BatchRecord first = unit.get(0);
+            switch (first.getType()) {
+                case CHAT -> {
+                    ChatResponse response = client.chat(objectMapper.treeToValue(first.getRequest(), ChatRequest.class));
+                    accumulator.succeeded(System.nanoTime() - start,
+                            response.getPromptEvalCount(), response.getEvalCount());
+                    writer.success(first, response);
+                }
+                case GENERATE -> {
+                    GenerateResponse response = client.generate(
+                            objectMapper.treeToValue(first.getRequest(), GenerateRequest.class));
+                    accumulator.succeeded(System.nanoTime() - start,
+                            response.getPromptEvalCount(), response.getEvalCount());
+                    writer.success(first, response);
+                }
+                case EMBED -> embed(unit, start, writer, accumulator);
+            }
+        } catch (Exception e) {
+            for (BatchRecord record : unit) {
+                accumulator.failed(System.nanoTime() - start);
+                writer.failure(record.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void embed(List<BatchRecord> unit, long start, ResultWriter writer, ModelAccumulator accumulator)
+            throws IOException {
+        List<EmbedRequest> requests = new ArrayList<>(unit.size());
+        List<String> inputs = new ArrayList<>();
+        for (BatchRecord record : unit) {
+            EmbedRequest request = objectMapper.treeToValue(record.getRequest(), EmbedRequest.class);
+            requests.add(request);
+            inputs.addAll(request.getInput());
+        }
+        EmbedRequest first = requests.get(0);
+        EmbedResponse response = client.embed(EmbedRequest.builder()
+                .model(first.getModel())
+                .input(inputs)
+                .truncate(first.getTruncate())
+                .options(first.getOptions())
+                .build());
+        long latency = (System.nanoTime() - start) / unit.size();
+        if (response.getEmbeddings() == null || response.getEmbeddings().size() != inputs.size()) {
+            throw new IllegalStateException("Expected " + inputs.size() + " embeddings but got "
+                    + (response.getEmbeddings() == null ? 0 : response.getEmbeddings().size()));
+        }
+
+        List<EmbedResponse> parts = new ArrayList<>(unit.size());
+        int offset = 0;
+        for (EmbedRequest request : requests) {
+            int count = request.getInput().size();
+            parts.add(EmbedResponse.builder()
+                    .model(response.getModel())
+                    .embeddings(response.getEmbeddings().subList(offset, offset + count))
+                    .build());
+            offset += count;
+        }
+        // Written in one step, so a failure cannot leave some records of the unit with a success line
+        writer.success(unit, parts);
+        accumulator.tokens(response.getPromptEvalCount(), null);
+        for (int i = 0; i < unit.size(); i++) {
+            accumulator.succeeded(latency, null, null);
+        }
+    }
+
+    private static Set<String> readProgress(Path progressLog) throws IOException {
+        Set<String> completed = new HashSet<>();
+        if (Files.exists(progressLog)) {
+            try (Stream<String> lines = Files.lines(progressLog, StandardCharsets.UTF_8)) {
+                lines.filter(line -> !line.isBlank()).forEach(completed::add);
+            }
+        }
+        return completed;
+    }
+
+    private static void awaitTermination(ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, long-running batches are expected
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch records", e);
+        }
+    }
+
+    private class ResultWriter implements Closeable {
+
+        private final BufferedWriter output;
+        private final BufferedWriter progress;
+
+        ResultWriter(Path output, Path progressLog) throws IOException {
+            this.output = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            this.progress = Files.newBufferedWriter(progressLog, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        void success(BatchRecord record, Object response) throws IOException {
+            success(List.of(record), List.of(response));
+        }
+
+        /**
+         * Serializes the result lines of all {@code records} before writing any of them.
+         */
+        void success(List<BatchRecord> records, List<?> responses) throws IOException {
+            List<String> lines = new ArrayList<>(records.size());
+            List<String> ids = new ArrayList<>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                BatchRecord record = records.get(i);
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("id", record.getId());
+                line.put("type", record.getType().getValue());
+                line.set("response", objectMapper.valueToTree(responses.get(i)));
+                lines.add(objectMapper.writeValueAsString(line));
+                ids.add(record.getId());
+            }
+            write(lines, ids);
+        }
+
+        void failure(String id, String error) {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("id", id);
+            line.put("error", error);
+            try {
+                write(List.of(objectMapper.writeValueAsString(line)), List.of());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to write batch result for " + id, e);
+            }
+        }
+
+        private synchronized void write(List<String> lines, List<String> completedIds) {
+            try {
+                for (String line : lines) {
+                    output.write(line);
+                    output.newLine();
+                }
+                output.flush();
+                for (String id : completedIds) {
+                    progress.write(id);
+                    progress.newLine();
+                }
+                progress.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write batch results", e);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                output.close();
+            } finally {
+                progress.close();
+            }
+        }
+    }
+
+    private static class Stats {
+
+        final LongAdder records = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final Map<String, ModelAccumulator> models = new ConcurrentHashMap<>();
+
+        ModelAccumulator model(String model) {
+            return models.computeIfAbsent(model, k -> new ModelAccumulator());
+        }
+
+        BatchReport report(Duration elapsed) {
+            Map<String, BatchReport.ModelStats> perModel = new TreeMap<>();
+            long succeeded = 0;
+            long failed = 0;
+            long promptTokens = 0;
+            long evalTokens = 0;
+            for (Map.Entry<String, ModelAccumulator> entry : models.entrySet()) {
+                BatchReport.ModelStats modelStats = entry.getValue().toStats();
+                perModel.put(entry.getKey(), modelStats);
+                succeeded += modelStats.getRequests() - modelStats.getFailures();
+                failed += modelStats.getFailures();
+                promptTokens += modelStats.getPromptTokens();
+                evalTokens += modelStats.getEvalTokens();
+            }
+            return BatchReport.builder()
+                    .records(records.sum())
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .skipped(skipped.sum())
+                    .promptTokens(promptTokens)
+                    .evalTokens(evalTokens)
+                    .elapsed(elapsed)
+                    .models(perModel)
+                    .build();
+        }
+    }
+
+    private static class EmbedUnit {
+
+        final List<BatchRecord> records = new ArrayList<>();
+        int inputs;
+    }
+
+    private static class ModelAccumulator {
+
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder promptTokens = new LongAdder();
+        final LongAdder evalTokens = new LongAdder();
+        final LongAdder latencyNanos = new LongAdder();
+
+        void succeeded(long nanos, Integer prompt, Integer eval) {
+            requests.increment();
+            latencyNanos.add(nanos);
+            tokens(prompt, eval);
+        }
+
+        void tokens(Integer prompt, Integer eval) {
+            promptTokens.add(prompt != null ? prompt : 0);
+            evalTokens.add(eval != null ? eval : 0);
+        }
+
+        void failed(long nanos) {
+            requests.increment();
+            failures.increment();
+            latencyNanos.add(nanos);
+        }
+
+        BatchReport.ModelStats toStats() {
+            return BatchReport.ModelStats.builder()
+                    .requests(requests.sum())
+                    .failures(failures.sum())
+                    .promptTokens(promptTokens.sum())
+                    .evalTokens(evalTokens.sum())
+                    .totalLatency(Duration.ofNanos(latencyNanos.sum()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.bayazit.ollama.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a batch input file, e.g.
+ * {@code {"id":"42","type":"chat","request":{"model":"llama3.2","messages":[...]}}}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRecord {
+
+    private String id;
+    private BatchRecordType type;
+    private JsonNode request;
+}
@@ -0,0 +1,32 @@
+package io.github.bayazit.ollama.batch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum BatchRecordType {
+
+    CHAT("chat"),
+    GENERATE("generate"),
+    EMBED("embed");
+
+    private final String value;
+
+    BatchRecordType(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @JsonCreator
+    public static BatchRecordType fromValue(String value) {
+        for (BatchRecordType type : values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown batch record type: " + value);
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.bayazit.ollama.batch;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Value
+@Builder
+public class BatchReport {
+
+    long records;
+    long succeeded;
+    long failed;
+
+    /**
+     * Records skipped because the progress log marked them as already completed.
+     */
+    long skipped;
+
+    long promptTokens;
+    long evalTokens;
+    Duration elapsed;
+    Map<String, ModelStats> models;
+
+    public double getTokensPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? (promptTokens + evalTokens) / seconds : 0.0;
+    }
+
+    @Value
+    @Builder
+    public static class ModelStats {
+
+        long requests;
+        long failures;
+        long promptTokens;
+        long evalTokens;
+
+        /**
+         * Sum of request latencies; exceeds the wall-clock time when requests run concurrently.
+         */
+        Duration totalLatency;
+
+        public Duration getAverageLatency() {
+            return requests > 0 ? totalLatency.dividedBy(requests) : Duration.ZERO;
+        }
+    }
+}
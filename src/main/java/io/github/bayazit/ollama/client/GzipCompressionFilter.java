@@ -0,0 +1,83 @@
+package io.github.bayazit.ollama.client;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@code WebClient} filter that gzips request bodies of at least {@code threshold} bytes sent to one of
+ * {@code paths}. Response decompression is left to Reactor Netty's {@code HttpClient.compress(true)},
+ * which decodes streamed responses chunk by chunk.
+ */
+public class GzipCompressionFilter implements ExchangeFilterFunction {
+
+    private final GzipPolicy policy;
+
+    /**
+     * @param paths     request paths whose bodies may be compressed; empty for all
+     * @param threshold minimum body size in bytes to compress
+     * @param level     deflate level from 1 (fastest) to 9 (smallest)
+     */
+    public GzipCompressionFilter(Set<String> paths, int threshold, int level) {
+        this.policy = new GzipPolicy(paths, threshold, level);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.CONTENT_ENCODING)
+                || !policy.appliesTo(request.url().getPath())) {
+            return next.exchange(request);
+        }
+        ClientRequest compressing = ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body().insert(new Compressing(outputMessage), context))
+                .build();
+        return next.exchange(compressing);
+    }
+
+    /**
+     * Joins the encoded body, which the JSON encoder produces as a single buffer anyway, and compresses
+     * it if it is large enough. Headers can still be changed here because they are only committed when
+     * the body is written.
+     */
+    private class Compressing extends ClientHttpRequestDecorator {
+
+        Compressing(ClientHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(joined -> {
+                        if (joined.isEmpty()) {
+                            return super.writeWith(Mono.empty());
+                        }
+                        DataBuffer buffer = joined.get();
+                        int length = buffer.readableByteCount();
+                        if (!policy.shouldCompress(getURI().getPath(), length)) {
+                            return super.writeWith(Mono.just(buffer));
+                        }
+                        byte[] bytes = new byte[length];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        byte[] compressed = policy.gzip(bytes);
+                        getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                        getHeaders().setContentLength(compressed.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(compressed)));
+                    });
+        }
+    }
+}
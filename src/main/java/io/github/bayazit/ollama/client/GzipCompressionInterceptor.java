@@ -0,0 +1,115 @@
+package io.github.bayazit.ollama.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@code RestClient} interceptor that gzips request bodies of at least {@code threshold} bytes sent to
+ * one of {@code paths}, and advertises {@code Accept-Encoding: gzip} and decompresses gzip responses
+ * as they are read.
+ * <p>
+ * Interceptors make {@code RestClient} buffer the request body, so only install this one when the
+ * server is remote enough for compression to pay off.
+ */
+public class GzipCompressionInterceptor implements ClientHttpRequestInterceptor {
+
+    private final GzipPolicy policy;
+    private final boolean decompressResponses;
+
+    /**
+     * @param paths               request paths whose bodies may be compressed; empty for all
+     * @param threshold           minimum body size in bytes to compress
+     * @param level               deflate level from 1 (fastest) to 9 (smallest)
+     * @param decompressResponses whether to request and decode gzip responses
+     */
+    public GzipCompressionInterceptor(Set<String> paths, int threshold, int level, boolean decompressResponses) {
+        this.policy = new GzipPolicy(paths, threshold, level);
+        this.decompressResponses = decompressResponses;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpHeaders headers = request.getHeaders();
+        if (policy.shouldCompress(request.getURI().getPath(), body.length)
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            body = policy.gzip(body);
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.setContentLength(body.length);
+        }
+        if (!decompressResponses) {
+            return execution.execute(request, body);
+        }
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ClientHttpResponse response = execution.execute(request, body);
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return "gzip".equalsIgnoreCase(encoding) ? new GzipResponse(response) : response;
+    }
+
+    /**
+     * Decodes the body incrementally, so streamed NDJSON lines are available as soon as they arrive.
+     */
+    private static final class GzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = gunzip(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private static InputStream gunzip(InputStream raw) throws IOException {
+            // An empty body, e.g. of a 204, has no gzip header
+            PushbackInputStream in = new PushbackInputStream(raw, 1);
+            int first = in.read();
+            if (first < 0) {
+                return InputStream.nullInputStream();
+            }
+            in.unread(first);
+            return new GZIPInputStream(in, 8192);
+        }
+    }
+}
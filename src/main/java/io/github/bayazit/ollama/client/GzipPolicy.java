@@ -0,0 +1,69 @@
+package io.github.bayazit.ollama.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Which request bodies to gzip, and at which level; shared by the blocking and reactive clients.
+ */
+final class GzipPolicy {
+
+    private final Set<String> paths;
+    private final int threshold;
+    private final int level;
+
+    GzipPolicy(Set<String> paths, int threshold, int level) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("level must be between 1 and 9");
+        }
+        // A leading slash makes suffix matching stop at a segment boundary
+        this.paths = paths.stream()
+                .map(path -> path.startsWith("/") ? path : "/" + path)
+                .collect(Collectors.toUnmodifiableSet());
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    /**
+     * Matches the configured paths as suffixes, so they also apply when the base URL has a path prefix,
+     * such as a node behind a reverse proxy at {@code https://proxy/ollama}.
+     */
+    boolean appliesTo(String path) {
+        if (paths.isEmpty() || paths.contains(path)) {
+            return true;
+        }
+        for (String suffix : paths) {
+            if (path.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean shouldCompress(String path, long length) {
+        return length >= threshold && appliesTo(path);
+    }
+
+    byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+}
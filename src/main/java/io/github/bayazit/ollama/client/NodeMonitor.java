@@ -0,0 +1,196 @@
+package io.github.bayazit.ollama.client;
+
+import io.github.bayazit.ollama.model.ModelList;
+import io.github.bayazit.ollama.model.RunningModelList;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Polls {@code /api/ps} and {@code /api/tags} of every node in parallel on a background schedule and
+ * caches the results, so that readers such as health checks never wait for the network. A node that does
+ * not answer within the poll timeout keeps its last known state, whose {@code polledAt} shows its age, until
+ * it has missed {@code staleAfter} polls in a row; from then on the state is marked stale.
+ */
+public class NodeMonitor implements AutoCloseable {
+
+    private static final int DEFAULT_STALE_AFTER = 3;
+
+    private final Map<String, OllamaClient> nodes;
+    private final Duration interval;
+    private final Duration timeout;
+    private final int staleAfter;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollers;
+    private volatile Map<String, NodeState> states = Map.of();
+
+    public NodeMonitor(Map<String, OllamaClient> nodes, Duration interval) {
+        this(nodes, interval, interval);
+    }
+
+    public NodeMonitor(Map<String, OllamaClient> nodes, Duration interval, Duration timeout) {
+        this(nodes, interval, timeout, DEFAULT_STALE_AFTER);
+    }
+
+    public NodeMonitor(Map<String, OllamaClient> nodes, Duration interval, Duration timeout, int staleAfter) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        if (staleAfter < 1) {
+            throw new IllegalArgumentException("staleAfter must be at least 1");
+        }
+        this.nodes = new LinkedHashMap<>(nodes);
+        this.interval = interval;
+        this.timeout = timeout;
+        this.staleAfter = staleAfter;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("ollama-monitor"));
+        // Not bounded by the node count: a poll stuck past its timeout must not delay the other nodes
+        this.pollers = Executors.newCachedThreadPool(daemon("ollama-monitor-poll"));
+    }
+
+    /**
+     * Polls immediately in the background and then every {@code interval} after the previous poll finished.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Polls all nodes in parallel and replaces the cached states once every node has answered, failed or
+     * timed out. Never throws, so that one bad poll cannot stop the schedule; if polling itself fails, the
+     * previous states are kept.
+     */
+    public void poll() {
+        Map<String, NodeState> previous = states;
+        Map<String, Future<NodeState>> polls = new LinkedHashMap<>();
+        try {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            nodes.forEach((node, client) -> polls.put(node, pollers.submit(() -> poll(node, client))));
+            Map<String, NodeState> polled = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<NodeState>> entry : polls.entrySet()) {
+                String node = entry.getKey();
+                polled.put(node, await(node, entry.getValue(), deadline, previous.get(node)));
+            }
+            states = Collections.unmodifiableMap(polled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            polls.values().forEach(future -> future.cancel(true));
+        } catch (RuntimeException | Error e) {
+            polls.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Cached state of each node by base URL; empty until the first poll has completed.
+     */
+    public Map<String, NodeState> getStates() {
+        return states;
+    }
+
+    public Map<String, OllamaClient> getNodes() {
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    /**
+     * How long one poll waits for all nodes to answer.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * How many polls in a row a node may miss before its last known state is marked stale.
+     */
+    public int getStaleAfter() {
+        return staleAfter;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        pollers.shutdownNow();
+    }
+
+    private NodeState await(String node, Future<NodeState> future, long deadline, NodeState previous)
+            throws InterruptedException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            String error = "No answer within " + timeout.toMillis() + " ms";
+            if (previous == null) {
+                return down(node, Instant.now().minus(timeout), error).pollDuration(timeout).missedPolls(1).build();
+            }
+            int missed = previous.getMissedPolls() + 1;
+            return previous.toBuilder()
+                    .error(missed > 1 ? error + " in " + missed + " polls" : error)
+                    .missedPolls(missed)
+                    .stale(missed >= staleAfter)
+                    .build();
+        } catch (ExecutionException e) {
+            return down(node, Instant.now(), e.getCause().toString()).build();
+        }
+    }
+
+    private static NodeState poll(String node, OllamaClient client) {
+        Instant polledAt = Instant.now();
+        long start = System.nanoTime();
+        NodeState.NodeStateBuilder state;
+        try {
+            RunningModelList running = client.listRunningModels();
+            ModelList available = client.listModels();
+            state = NodeState.builder().node(node).polledAt(polledAt).up(true)
+                    .loadedModels(running != null && running.getModels() != null ? running.getModels() : List.of())
+                    .availableModels(names(available));
+        } catch (RuntimeException e) {
+            state = down(node, polledAt, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+        return state.pollDuration(Duration.ofNanos(System.nanoTime() - start)).build();
+    }
+
+    private static NodeState.NodeStateBuilder down(String node, Instant polledAt, String error) {
+        return NodeState.builder()
+                .node(node)
+                .polledAt(polledAt)
+                .up(false)
+                .error(error)
+                .loadedModels(List.of())
+                .availableModels(List.of());
+    }
+
+    private static List<String> names(ModelList models) {
+        List<String> names = new ArrayList<>();
+        if (models != null && models.getModels() != null) {
+            models.getModels().forEach(model -> names.add(model.getName()));
+        }
+        return names;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.bayazit.ollama.client;
+
+import io.github.bayazit.ollama.model.RunningModel;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of the last poll of one node by {@link NodeMonitor}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class NodeState {
+
+    String node;
+    boolean up;
+
+    /**
+     * Why the last poll failed; {@code null} if it succeeded.
+     */
+    String error;
+
+    Instant polledAt;
+    Duration pollDuration;
+
+    /**
+     * Consecutive polls since {@code polledAt} that the node did not answer within the timeout.
+     */
+    int missedPolls;
+
+    /**
+     * Whether the node missed so many polls that this state can no longer be trusted; readers treat a stale
+     * node as down.
+     */
+    boolean stale;
+
+    /**
+     * Models loaded in memory with their size, VRAM use and expiry, from {@code /api/ps}.
+     */
+    List<RunningModel> loadedModels;
+
+    /**
+     * Names of the models installed on the node, from {@code /api/tags}.
+     */
+    List<String> availableModels;
+
+    public long getMemoryBytes() {
+        return loadedModels.stream().mapToLong(model -> model.getSize() != null ? model.getSize() : 0).sum();
+    }
+
+    public long getVramBytes() {
+        return loadedModels.stream().mapToLong(model -> model.getSizeVram() != null ? model.getSizeVram() : 0).sum();
+    }
+}
@@ -7,39 +7,54 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class OllamaClient {
 
     private final RestClient restClient;
+    private final RequestTimingListener timingListener;
+    private final AtomicInteger inFlight = new AtomicInteger();
 
     public OllamaClient(RestClient restClient) {
+        this(restClient, null);
+    }
+
+    /**
+     * Creates a client that also passes the {@link RequestTiming} of every chat, generate and embed call to
+     * {@code timingListener}. The timing is attached to the responses either way.
+     */
+    public OllamaClient(RestClient restClient, RequestTimingListener timingListener) {
         this.restClient = restClient;
+        this.timingListener = timingListener;
     }
 
     public ChatResponse chat(ChatRequest request) {
         request.setStream(request.getStream() != null ? request.getStream() : false);
-        return restClient.post()
-                .uri("/api/chat")
-                .body(request)
-                .retrieve()
-                .body(ChatResponse.class);
+        Timings timings = new Timings("/api/chat", request.getModel());
+        ChatResponse response = post("/api/chat", request, ChatResponse.class, timings);
+        if (response != null) {
+            response.setTiming(publish(timings.chat(response, false)));
+        }
+        return response;
     }
 
     public GenerateResponse generate(GenerateRequest request) {
         request.setStream(request.getStream() != null ? request.getStream() : false);
-        return restClient.post()
-                .uri("/api/generate")
-                .body(request)
-                .retrieve()
-                .body(GenerateResponse.class);
+        Timings timings = new Timings("/api/generate", request.getModel());
+        GenerateResponse response = post("/api/generate", request, GenerateResponse.class, timings);
+        if (response != null) {
+            response.setTiming(publish(timings.generate(response, false)));
+        }
+        return response;
     }
 
     public EmbedResponse embed(EmbedRequest request) {
-        return restClient.post()
-                .uri("/api/embed")
-                .body(request)
-                .retrieve()
-                .body(EmbedResponse.class);
+        Timings timings = new Timings("/api/embed", request.getModel());
+        EmbedResponse response = post("/api/embed", request, EmbedResponse.class, timings);
+        if (response != null) {
+            response.setTiming(publish(timings.embed(response)));
+        }
+        return response;
     }
 
     public ModelList listModels() {
@@ -49,6 +64,16 @@ public class OllamaClient {
                 .body(ModelList.class);
     }
 
+    /**
+     * Models currently loaded in memory ({@code /api/ps}).
+     */
+    public RunningModelList listRunningModels() {
+        return restClient.get()
+                .uri("/api/ps")
+                .retrieve()
+                .body(RunningModelList.class);
+    }
+
     public ModelInfo showModel(String model) {
         return restClient.post()
                 .uri("/api/show")
@@ -74,6 +99,13 @@ public class OllamaClient {
                 .toBodilessEntity();
     }
 
+    /**
+     * Number of chat, generate and embed calls currently running on this client.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
     public boolean isAvailable() {
         try {
             restClient.get()
@@ -85,4 +117,39 @@ public class OllamaClient {
             return false;
         }
     }
+
+    /**
+     * POSTs {@code body} and decodes the response, recording when the response headers arrived. A call
+     * that fails is still published to the listener, with the failure as its error.
+     * <p>
+     * The arrival is seen by a status predicate that never matches, so the caller's status handlers still
+     * decide about errors and, unlike a request interceptor, the request body is not buffered.
+     */
+    private <T> T post(String uri, Object body, Class<T> type, Timings timings) {
+        inFlight.incrementAndGet();
+        try {
+            return restClient.post()
+                    .uri(uri)
+                    .body(body)
+                    .retrieve()
+                    .onStatus(status -> {
+                        timings.firstByte();
+                        return false;
+                    }, (request, response) -> {
+                    })
+                    .body(type);
+        } catch (RuntimeException | Error e) {
+            publish(timings.failed(e.toString(), false));
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private RequestTiming publish(RequestTiming timing) {
+        if (timingListener != null) {
+            timingListener.onRequest(timing);
+        }
+        return timing;
+    }
 }
@@ -0,0 +1,25 @@
+package io.github.bayazit.ollama.client;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Clients of all configured Ollama nodes by base URL, the primary node first. Shared so that routing and
+ * monitoring see the same clients and in-flight counts.
+ */
+public class OllamaNodes {
+
+    private final Map<String, OllamaClient> clients;
+
+    public OllamaNodes(Map<String, OllamaClient> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("at least one node is required");
+        }
+        this.clients = Collections.unmodifiableMap(new LinkedHashMap<>(clients));
+    }
+
+    public Map<String, OllamaClient> getClients() {
+        return clients;
+    }
+}
@@ -4,32 +4,113 @@ import io.github.bayazit.ollama.model.ChatRequest;
 import io.github.bayazit.ollama.model.ChatResponse;
 import io.github.bayazit.ollama.model.GenerateRequest;
 import io.github.bayazit.ollama.model.GenerateResponse;
+import io.github.bayazit.ollama.model.RequestTiming;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 
+import java.util.function.Supplier;
+
 public class OllamaStreamingClient {
 
-    private final WebClient webClient;
+    private final Supplier<WebClient> webClientSupplier;
+    private final RequestTimingListener timingListener;
+    private volatile WebClient webClient;
 
     public OllamaStreamingClient(WebClient webClient) {
         this.webClient = webClient;
+        this.webClientSupplier = () -> webClient;
+        this.timingListener = null;
+    }
+
+    /**
+     * Creates the client without building the {@link WebClient} until the first streaming call.
+     */
+    public OllamaStreamingClient(Supplier<WebClient> webClientSupplier) {
+        this(webClientSupplier, null);
+    }
+
+    /**
+     * Like {@link #OllamaStreamingClient(Supplier)}, additionally passing the timing of every stream to
+     * {@code timingListener}, including streams that fail or are cancelled before their final
+     * ({@code done}) chunk. The timing of a completed stream is also attached to that chunk.
+     */
+    public OllamaStreamingClient(Supplier<WebClient> webClientSupplier, RequestTimingListener timingListener) {
+        this.webClientSupplier = webClientSupplier;
+        this.timingListener = timingListener;
     }
 
     public Flux<ChatResponse> chatStream(ChatRequest request) {
         request.setStream(true);
-        return webClient.post()
-                .uri("/api/chat")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToFlux(ChatResponse.class);
+        return Flux.defer(() -> {
+            Timings timings = new Timings("/api/chat", request.getModel());
+            return unfinished(webClient().post()
+                    .uri("/api/chat")
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToFlux(ChatResponse.class)
+                    .doOnNext(chunk -> {
+                        timings.firstByte();
+                        if (Boolean.TRUE.equals(chunk.getDone())) {
+                            chunk.setTiming(publish(timings.chat(chunk, true)));
+                        }
+                    }), timings);
+        });
     }
 
     public Flux<GenerateResponse> generateStream(GenerateRequest request) {
         request.setStream(true);
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToFlux(GenerateResponse.class);
+        return Flux.defer(() -> {
+            Timings timings = new Timings("/api/generate", request.getModel());
+            return unfinished(webClient().post()
+                    .uri("/api/generate")
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToFlux(GenerateResponse.class)
+                    .doOnNext(chunk -> {
+                        timings.firstByte();
+                        if (Boolean.TRUE.equals(chunk.getDone())) {
+                            chunk.setTiming(publish(timings.generate(chunk, true)));
+                        }
+                    }), timings);
+        });
+    }
+
+    /**
+     * Publishes a timing with an error for streams that end without a {@code done} chunk: failures,
+     * timeouts and cancellation by the subscriber. The timing is published before the signal reaches
+     * the subscriber.
+     */
+    private <T> Flux<T> unfinished(Flux<T> chunks, Timings timings) {
+        return chunks
+                .doOnError(error -> unfinished(timings, error.toString()))
+                .doOnCancel(() -> unfinished(timings, "cancelled"))
+                .doOnComplete(() -> unfinished(timings, "stream ended without a done chunk"));
+    }
+
+    private void unfinished(Timings timings, String error) {
+        if (!timings.isCompleted()) {
+            publish(timings.failed(error, true));
+        }
+    }
+
+    private RequestTiming publish(RequestTiming timing) {
+        if (timingListener != null) {
+            timingListener.onRequest(timing);
+        }
+        return timing;
+    }
+
+    private WebClient webClient() {
+        WebClient client = webClient;
+        if (client == null) {
+            synchronized (this) {
+                client = webClient;
+                if (client == null) {
+                    client = webClientSupplier.get();
+                    webClient = client;
+                }
+            }
+        }
+        return client;
     }
 }
@@ -0,0 +1,29 @@
+package io.github.bayazit.ollama.client;
+
+import io.github.bayazit.ollama.model.RequestTiming;
+
+import java.util.List;
+
+/**
+ * Receives the timing of every call, failed ones included, on the calling thread, so implementations must be cheap
+ * for the common case.
+ */
+@FunctionalInterface
+public interface RequestTimingListener {
+
+    void onRequest(RequestTiming timing);
+
+    /**
+     * Listener notifying all of {@code listeners} in order, or {@code null} if there are none.
+     */
+    static RequestTimingListener of(List<RequestTimingListener> listeners) {
+        if (listeners.isEmpty()) {
+            return null;
+        }
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        List<RequestTimingListener> copy = List.copyOf(listeners);
+        return timing -> copy.forEach(listener -> listener.onRequest(timing));
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.bayazit.ollama.client;
+
+import io.github.bayazit.ollama.model.RequestTiming;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the timings of the most recent slow calls in a fixed-size ring buffer. Calls faster than the
+ * threshold cost a single comparison; of the slower ones, a {@code sampleRate} fraction is kept, so a
+ * burst of slow calls cannot turn the log into a hot spot.
+ */
+public class SlowRequestLog implements RequestTimingListener {
+
+    private final Duration threshold;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final AtomicReferenceArray<RequestTiming> entries;
+    private final AtomicLong recorded = new AtomicLong();
+    private final LongAdder slowRequests = new LongAdder();
+
+    public SlowRequestLog(Duration threshold, int capacity, double sampleRate) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.threshold = threshold;
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void onRequest(RequestTiming timing) {
+        if (timing.getTotal().toNanos() < thresholdNanos) {
+            return;
+        }
+        slowRequests.increment();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        entries.set((int) (recorded.getAndIncrement() % entries.length()), timing);
+    }
+
+    /**
+     * Logged timings, newest first.
+     */
+    public List<RequestTiming> getEntries() {
+        long end = recorded.get();
+        long start = Math.max(0, end - entries.length());
+        List<RequestTiming> result = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            RequestTiming timing = entries.get((int) (i % entries.length()));
+            if (timing != null) {
+                result.add(timing);
+            }
+        }
+        return result;
+    }
+
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Calls at or above the threshold, whether sampled or not.
+     */
+    public long getSlowRequests() {
+        return slowRequests.sum();
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.bayazit.ollama.client;
+
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import io.github.bayazit.ollama.model.GenerateResponse;
+import io.github.bayazit.ollama.model.RequestTiming;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Collects the client-side phases of one call and completes them with the server-reported durations.
+ */
+final class Timings {
+
+    private final String endpoint;
+    private final String model;
+    private final Instant startedAt = Instant.now();
+    private final long start = System.nanoTime();
+    private long firstByte;
+    private volatile boolean completed;
+
+    Timings(String endpoint, String model) {
+        this.endpoint = endpoint;
+        this.model = model;
+    }
+
+    void firstByte() {
+        if (firstByte == 0) {
+            firstByte = System.nanoTime();
+        }
+    }
+
+    /**
+     * Whether a timing for a successful response has been built.
+     */
+    boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Timing of a call that failed, timed out or was cancelled, with {@code error} describing why.
+     */
+    RequestTiming failed(String error, boolean streamed) {
+        return builder(streamed)
+                .decode(null)
+                .error(error)
+                .build();
+    }
+
+    RequestTiming chat(ChatResponse response, boolean streamed) {
+        completed = true;
+        return builder(streamed)
+                .serverTotal(nanos(response.getTotalDuration()))
+                .load(nanos(response.getLoadDuration()))
+                .promptEval(nanos(response.getPromptEvalDuration()))
+                .eval(nanos(response.getEvalDuration()))
+                .promptEvalCount(response.getPromptEvalCount())
+                .evalCount(response.getEvalCount())
+                .build();
+    }
+
+    RequestTiming generate(GenerateResponse response, boolean streamed) {
+        completed = true;
+        return builder(streamed)
+                .serverTotal(nanos(response.getTotalDuration()))
+                .load(nanos(response.getLoadDuration()))
+                .promptEval(nanos(response.getPromptEvalDuration()))
+                .eval(nanos(response.getEvalDuration()))
+                .promptEvalCount(response.getPromptEvalCount())
+                .evalCount(response.getEvalCount())
+                .build();
+    }
+
+    RequestTiming embed(EmbedResponse response) {
+        completed = true;
+        return builder(false)
+                .serverTotal(nanos(response.getTotalDuration()))
+                .load(nanos(response.getLoadDuration()))
+                .promptEvalCount(response.getPromptEvalCount())
+                .build();
+    }
+
+    private RequestTiming.RequestTimingBuilder builder(boolean streamed) {
+        long end = System.nanoTime();
+        long firstByte = this.firstByte != 0 ? this.firstByte : end;
+        return RequestTiming.builder()
+                .endpoint(endpoint)
+                .model(model)
+                .startedAt(startedAt)
+                .timeToFirstByte(Duration.ofNanos(firstByte - start))
+                .decode(streamed ? null : Duration.ofNanos(end - firstByte))
+                .total(Duration.ofNanos(end - start));
+    }
+
+    private static Duration nanos(Long nanos) {
+        return nanos != null ? Duration.ofNanos(nanos) : null;
+    }
+}
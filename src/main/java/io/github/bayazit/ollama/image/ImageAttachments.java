@@ -0,0 +1,83 @@
+package io.github.bayazit.ollama.image;
+
+import io.github.bayazit.ollama.model.ImageAttachment;
+import io.github.bayazit.ollama.model.ImageEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Creates {@link ImageAttachment}s that share an optional {@link ImageProcessor} and {@link ImageCache}.
+ * Without either, attachments are streamed into the request body as they are; with them, each image is
+ * read into memory once to process or hash it.
+ */
+public class ImageAttachments implements ImageEncoder {
+
+    private final ImageProcessor processor;
+    private final ImageCache cache;
+
+    public ImageAttachments(ImageProcessor processor, ImageCache cache) {
+        this.processor = processor;
+        this.cache = cache;
+    }
+
+    public ImageAttachment of(Path file) {
+        return ImageAttachment.of(file).withEncoder(encoder());
+    }
+
+    public ImageAttachment of(byte[] image) {
+        return ImageAttachment.of(image).withEncoder(encoder());
+    }
+
+    public ImageAttachment of(InputStream image) {
+        return ImageAttachment.of(image).withEncoder(encoder());
+    }
+
+    /**
+     * Processes and base64-encodes {@code image}, reusing the cached form of an identical image.
+     */
+    @Override
+    public byte[] encode(byte[] image) throws IOException {
+        String key = cache != null ? key(image) : null;
+        byte[] encoded = key != null ? cache.get(key) : null;
+        if (encoded == null) {
+            byte[] processed = processor != null ? processor.process(image) : image;
+            encoded = Base64.getEncoder().encode(processed);
+            if (cache != null) {
+                cache.put(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    public ImageProcessor getProcessor() {
+        return processor;
+    }
+
+    public ImageCache getCache() {
+        return cache;
+    }
+
+    private ImageEncoder encoder() {
+        return processor != null || cache != null ? this : null;
+    }
+
+    private String key(byte[] image) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(image);
+            if (processor != null) {
+                digest.update(processor.signature().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
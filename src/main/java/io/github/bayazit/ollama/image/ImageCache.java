@@ -0,0 +1,61 @@
+package io.github.bayazit.ollama.image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Least-recently-used cache of base64-encoded images keyed by content hash, bounded by the total size
+ * of the encoded forms. Images repeated across the turns of a conversation are then encoded once.
+ */
+public class ImageCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long bytes;
+
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the encoded form for {@code key}, or {@code null}.
+     */
+    public synchronized byte[] get(String key) {
+        byte[] encoded = entries.get(key);
+        (encoded != null ? hits : misses).increment();
+        return encoded;
+    }
+
+    public synchronized void put(String key, byte[] encoded) {
+        if (encoded.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, encoded);
+        bytes += encoded.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
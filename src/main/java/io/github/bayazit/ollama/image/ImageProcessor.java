@@ -0,0 +1,99 @@
+package io.github.bayazit.ollama.image;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Shrinks images before upload: images larger than {@code maxDimension} pixels on their longest side are
+ * downscaled, and images above {@code recompressAboveBytes} are re-encoded as JPEG with
+ * {@code quality}. Anything else, including formats ImageIO cannot read, is passed through unchanged.
+ */
+public class ImageProcessor {
+
+    private final int maxDimension;
+    private final long recompressAboveBytes;
+    private final float quality;
+
+    /**
+     * @param maxDimension         longest side in pixels, or 0 to keep the size
+     * @param recompressAboveBytes size above which images are re-encoded, or 0 to re-encode only
+     *                             downscaled images
+     * @param quality              JPEG quality between 0 and 1
+     */
+    public ImageProcessor(int maxDimension, long recompressAboveBytes, float quality) {
+        if (quality <= 0 || quality > 1) {
+            throw new IllegalArgumentException("quality must be in (0, 1]");
+        }
+        this.maxDimension = maxDimension;
+        this.recompressAboveBytes = recompressAboveBytes;
+        this.quality = quality;
+    }
+
+    public byte[] process(byte[] image) throws IOException {
+        boolean oversized = recompressAboveBytes > 0 && image.length > recompressAboveBytes;
+        if (maxDimension <= 0 && !oversized) {
+            return image;
+        }
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+        if (decoded == null) {
+            return image;
+        }
+        int longest = Math.max(decoded.getWidth(), decoded.getHeight());
+        boolean downscale = maxDimension > 0 && longest > maxDimension;
+        if (!downscale && !oversized) {
+            return image;
+        }
+        double factor = downscale ? (double) maxDimension / longest : 1.0;
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * factor));
+        // JPEG has no alpha channel, so always draw onto an opaque RGB image
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(decoded, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        byte[] encoded = writeJpeg(scaled);
+        return downscale || encoded.length < image.length ? encoded : image;
+    }
+
+    /**
+     * Identifies the settings in cache keys, so differently processed forms of an image never collide.
+     */
+    public String signature() {
+        return "max=" + maxDimension + ",above=" + recompressAboveBytes + ",q=" + quality;
+    }
+
+    private byte[] writeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
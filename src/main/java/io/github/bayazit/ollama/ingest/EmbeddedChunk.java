@@ -0,0 +1,15 @@
+package io.github.bayazit.ollama.ingest;
+
+import lombok.Value;
+
+/**
+ * Embedding of one chunk. The chunk text is not kept; {@code offset} and {@code length} locate it in the
+ * decoded source text.
+ */
+@Value
+public class EmbeddedChunk {
+
+    long offset;
+    int length;
+    float[] vector;
+}
@@ -0,0 +1,213 @@
+package io.github.bayazit.ollama.ingest;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import io.github.bayazit.ollama.vector.VectorMath;
+import lombok.Builder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Embeds text of any size with flat memory use: a {@link TextChunker} streams the input, chunks are
+ * grouped into {@code /api/embed} calls of {@code batchSize} inputs, and at most {@code maxInFlight}
+ * calls are outstanding at a time. Chunks are only read from the source when a call slot frees up, so
+ * at most {@code batchSize * maxInFlight} chunks and their vectors are held at once. Results are
+ * returned in input order.
+ */
+public class EmbeddingPipeline {
+
+    private final OllamaClient client;
+    private final String model;
+    private final int chunkSize;
+    private final int overlap;
+    private final Charset charset;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final ExecutorService executor;
+
+    @Builder
+    private EmbeddingPipeline(OllamaClient client, String model, Integer chunkSize, Integer overlap,
+                              Charset charset, Integer batchSize, Integer maxInFlight, ExecutorService executor) {
+        if (client == null || model == null) {
+            throw new IllegalArgumentException("client and model are required");
+        }
+        this.client = client;
+        this.model = model;
+        this.chunkSize = chunkSize != null ? chunkSize : 2000;
+        this.overlap = overlap != null ? overlap : 200;
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.batchSize = batchSize != null ? batchSize : 32;
+        this.maxInFlight = maxInFlight != null ? maxInFlight : 2;
+        this.executor = executor;
+        if (this.batchSize < 1 || this.maxInFlight < 1) {
+            throw new IllegalArgumentException("batchSize and maxInFlight must be at least 1");
+        }
+    }
+
+    /**
+     * Streams {@code file} through a {@link TextChunker} and embeds its chunks. The file and the call
+     * threads are released once the iterator is exhausted or a call fails; close it to release them
+     * when abandoning it early.
+     */
+    public Results embed(Path file) throws IOException {
+        return embed(TextChunker.open(file, charset, chunkSize, overlap));
+    }
+
+    /**
+     * Embeds chunks pulled from {@code chunks}, closing it with the returned iterator if it is
+     * {@link Closeable}.
+     */
+    public Results embed(Iterator<TextChunk> chunks) {
+        return new Results(chunks);
+    }
+
+    /**
+     * Embeds one batch synchronously.
+     */
+    public List<EmbeddedChunk> embedBatch(List<TextChunk> batch) {
+        List<String> inputs = new ArrayList<>(batch.size());
+        for (TextChunk chunk : batch) {
+            inputs.add(chunk.getText());
+        }
+        EmbedResponse response = client.embed(EmbedRequest.builder().model(model).input(inputs).build());
+        if (response == null || response.getEmbeddings() == null
+                || response.getEmbeddings().size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " embeddings from model " + model);
+        }
+        List<EmbeddedChunk> embedded = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            TextChunk chunk = batch.get(i);
+            embedded.add(new EmbeddedChunk(chunk.getOffset(), chunk.getText().length(),
+                    VectorMath.toFloatArray(response.getEmbeddings().get(i))));
+        }
+        return embedded;
+    }
+
+    public TextChunker chunker(Path file) throws IOException {
+        return TextChunker.open(file, charset, chunkSize, overlap);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Ordered embedding results. Not thread-safe; consume from one thread. Closes itself when exhausted
+     * or when a call fails.
+     */
+    public class Results implements Iterator<EmbeddedChunk>, Closeable {
+
+        private final Iterator<TextChunk> source;
+        private final ExecutorService pool;
+        private final Deque<Future<List<EmbeddedChunk>>> inFlight = new ArrayDeque<>();
+        private Iterator<EmbeddedChunk> current = Collections.emptyIterator();
+        private boolean closed;
+
+        Results(Iterator<TextChunk> source) {
+            this.source = source;
+            this.pool = executor != null ? executor : Executors.newFixedThreadPool(maxInFlight, runnable -> {
+                Thread thread = new Thread(runnable, "ollama-embed");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submitBatches();
+                Future<List<EmbeddedChunk>> next = inFlight.poll();
+                if (next == null) {
+                    closeAtEnd();
+                    return false;
+                }
+                current = await(next).iterator();
+                submitBatches();
+            }
+            return true;
+        }
+
+        @Override
+        public EmbeddedChunk next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+            if (pool != executor) {
+                pool.shutdownNow();
+            }
+            if (source instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+
+        private void closeAtEnd() {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void submitBatches() {
+            while (!closed && inFlight.size() < maxInFlight && source.hasNext()) {
+                List<TextChunk> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && source.hasNext()) {
+                    batch.add(source.next());
+                }
+                inFlight.add(pool.submit(() -> embedBatch(batch)));
+            }
+        }
+
+        private List<EmbeddedChunk> await(Future<List<EmbeddedChunk>> future) {
+            RuntimeException failure;
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Interrupted while waiting for embeddings", e);
+            } catch (ExecutionException e) {
+                failure = e.getCause() instanceof RuntimeException runtime
+                        ? runtime
+                        : new IllegalStateException("Embedding failed", e.getCause());
+            }
+            try {
+                close();
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.bayazit.ollama.ingest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+
+/**
+ * Reactor support for {@link EmbeddingPipeline}, kept separate so the pipeline itself does not require
+ * Reactor on the classpath.
+ */
+public final class ReactiveEmbedding {
+
+    private ReactiveEmbedding() {
+    }
+
+    /**
+     * Streams {@code file} and emits its embedded chunks in order. The file is opened on subscription
+     * and closed on completion, error or cancellation. Chunks are read on demand, so downstream
+     * backpressure bounds memory just like the blocking iterator.
+     */
+    public static Flux<EmbeddedChunk> embed(EmbeddingPipeline pipeline, Path file) {
+        return Flux.using(
+                () -> pipeline.chunker(file),
+                chunker -> embed(pipeline, Flux.fromIterable(() -> chunker)),
+                chunker -> {
+                    try {
+                        chunker.close();
+                    } catch (Exception ignored) {
+                        // nothing useful to do when closing a read-only channel fails
+                    }
+                });
+    }
+
+    /**
+     * Embeds a stream of chunks in batches with at most {@link EmbeddingPipeline#getMaxInFlight()}
+     * blocking calls outstanding, preserving order.
+     */
+    public static Flux<EmbeddedChunk> embed(EmbeddingPipeline pipeline, Flux<TextChunk> chunks) {
+        return chunks
+                .buffer(pipeline.getBatchSize())
+                .flatMapSequential(batch -> Mono.fromCallable(() -> pipeline.embedBatch(batch))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                        pipeline.getMaxInFlight(), 1)
+                .flatMapIterable(batch -> batch);
+    }
+}
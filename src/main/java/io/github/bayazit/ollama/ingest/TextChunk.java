@@ -0,0 +1,14 @@
+package io.github.bayazit.ollama.ingest;
+
+import lombok.Value;
+
+@Value
+public class TextChunk {
+
+    /**
+     * Offset of the first character of the chunk in the decoded text, in UTF-16 chars.
+     */
+    long offset;
+
+    String text;
+}
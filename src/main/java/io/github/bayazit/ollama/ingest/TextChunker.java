@@ -0,0 +1,170 @@
+package io.github.bayazit.ollama.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits text read from a channel into chunks of at most {@code maxChars} characters with {@code overlap}
+ * characters repeated between chunks, without holding more than about one chunk of text in memory.
+ * <p>
+ * Chunks end at the last paragraph break, sentence end, line break or whitespace in their second half,
+ * in that order of preference, and are only cut mid-word when there is none. The overlap is capped at half
+ * the length of the chunk it follows. Malformed input is replaced rather than rejected.
+ */
+public class TextChunker implements Iterator<TextChunk>, Closeable {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    private final int maxChars;
+    private final int overlap;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private final CharBuffer chars;
+    private final StringBuilder window;
+    private long windowOffset;
+    private boolean endOfInput;
+    private boolean finished;
+
+    public TextChunker(ReadableByteChannel channel, Charset charset, int maxChars, int overlap) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive");
+        }
+        if (overlap < 0 || overlap >= maxChars) {
+            throw new IllegalArgumentException("overlap must be in [0, maxChars)");
+        }
+        this.channel = channel;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.maxChars = maxChars;
+        this.overlap = overlap;
+        this.chars = CharBuffer.allocate((int) Math.ceil(READ_BUFFER_BYTES * (double) decoder.maxCharsPerByte()));
+        this.window = new StringBuilder(maxChars + chars.capacity());
+    }
+
+    public static TextChunker open(Path file, Charset charset, int maxChars, int overlap) throws IOException {
+        return new TextChunker(FileChannel.open(file, StandardOpenOption.READ), charset, maxChars, overlap);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        fill();
+        if (window.length() == 0) {
+            finished = true;
+        }
+        return !finished;
+    }
+
+    @Override
+    public TextChunk next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int end = Math.min(maxChars, window.length());
+        boolean last = endOfInput && end == window.length();
+        if (!last) {
+            end = breakPoint(end);
+        }
+        TextChunk chunk = new TextChunk(windowOffset, window.substring(0, end));
+        if (last) {
+            window.setLength(0);
+            finished = true;
+            return chunk;
+        }
+        // A chunk cut early at a break point repeats at most half of itself, so chunks keep advancing
+        int advance = Math.max(end - Math.min(overlap, end / 2), 1);
+        if (Character.isLowSurrogate(window.charAt(advance)) && advance < end) {
+            advance++;
+        }
+        window.delete(0, advance);
+        windowOffset += advance;
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads until the window holds more than {@code maxChars} characters, so that the character after a
+     * full chunk is known, or the input ends.
+     */
+    private void fill() {
+        try {
+            while (window.length() <= maxChars && !endOfInput) {
+                if (channel.read(bytes) < 0) {
+                    endOfInput = true;
+                }
+                bytes.flip();
+                while (drain(decoder.decode(bytes, chars, endOfInput))) {
+                    // output buffer was full, keep decoding
+                }
+                if (endOfInput) {
+                    while (drain(decoder.flush(chars))) {
+                        // keep flushing
+                    }
+                }
+                bytes.compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves decoded characters to the window and returns whether the decoder stopped on a full buffer.
+     */
+    private boolean drain(CoderResult result) {
+        chars.flip();
+        window.append(chars);
+        chars.clear();
+        if (result.isError()) {
+            throw new IllegalStateException("Unexpected decoder result " + result);
+        }
+        return result.isOverflow();
+    }
+
+    private int breakPoint(int end) {
+        int min = end / 2;
+        int paragraph = window.lastIndexOf("\n\n", end - 2);
+        if (paragraph >= min) {
+            return paragraph + 2;
+        }
+        for (int i = end - 1; i > min; i--) {
+            char previous = window.charAt(i - 1);
+            if ((previous == '.' || previous == '!' || previous == '?') && Character.isWhitespace(window.charAt(i))) {
+                return i + 1;
+            }
+        }
+        for (int i = end - 1; i >= min; i--) {
+            if (window.charAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        for (int i = end - 1; i >= min; i--) {
+            if (Character.isWhitespace(window.charAt(i))) {
+                return i + 1;
+            }
+        }
+        // No boundary at all: cut, but never between the halves of a surrogate pair
+        return Character.isLowSurrogate(window.charAt(end)) ? end - 1 : end;
+    }
+}
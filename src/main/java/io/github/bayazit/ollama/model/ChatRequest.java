@@ -21,6 +21,7 @@ public class ChatRequest {
     private Boolean stream;
     private String format;
     private OllamaOptions options;
+    private List<Tool> tools;
 
     @JsonProperty("keep_alive")
     private String keepAlive;
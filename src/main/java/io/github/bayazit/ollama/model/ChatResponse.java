@@ -1,10 +1,14 @@
 package io.github.bayazit.ollama.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.github.bayazit.ollama.model.json.ChatResponseDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
@@ -12,6 +16,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(using = ChatResponseDeserializer.class)
 public class ChatResponse {
 
     private String model;
@@ -39,4 +44,11 @@ public class ChatResponse {
 
     @JsonProperty("eval_duration")
     private Long evalDuration;
+
+    /**
+     * Timing breakdown of the call that returned this response; set by the client, not part of the JSON.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private RequestTiming timing;
 }
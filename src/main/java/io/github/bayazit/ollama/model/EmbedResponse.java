@@ -1,9 +1,12 @@
 package io.github.bayazit.ollama.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
@@ -17,4 +20,20 @@ public class EmbedResponse {
 
     private String model;
     private List<List<Double>> embeddings;
+
+    @JsonProperty("total_duration")
+    private Long totalDuration;
+
+    @JsonProperty("load_duration")
+    private Long loadDuration;
+
+    @JsonProperty("prompt_eval_count")
+    private Integer promptEvalCount;
+
+    /**
+     * Timing breakdown of the call that returned this response; set by the client, not part of the JSON.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private RequestTiming timing;
 }
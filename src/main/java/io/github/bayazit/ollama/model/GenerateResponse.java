@@ -1,10 +1,14 @@
 package io.github.bayazit.ollama.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.github.bayazit.ollama.model.json.GenerateResponseDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
@@ -14,6 +18,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(using = GenerateResponseDeserializer.class)
 public class GenerateResponse {
 
     private String model;
@@ -42,4 +47,11 @@ public class GenerateResponse {
 
     @JsonProperty("eval_duration")
     private Long evalDuration;
+
+    /**
+     * Timing breakdown of the call that returned this response; set by the client, not part of the JSON.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private RequestTiming timing;
 }
@@ -0,0 +1,135 @@
+package io.github.bayazit.ollama.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An image for {@link Message#getAttachments()} that is base64-encoded straight into the request body
+ * when the message is serialized, instead of being held as a base64 {@code String}.
+ * <p>
+ * Path and byte array sources can be serialized any number of times. An {@link InputStream} source is
+ * read on first serialization and closed; serializing it again fails. With an {@link ImageEncoder} the
+ * image is read into memory and the encoder's output is sent instead.
+ */
+public final class ImageAttachment {
+
+    private final Source source;
+    private final ImageEncoder encoder;
+
+    private ImageAttachment(Source source, ImageEncoder encoder) {
+        this.source = source;
+        this.encoder = encoder;
+    }
+
+    public static ImageAttachment of(Path file) {
+        return new ImageAttachment(new Source() {
+            @Override
+            public InputStream open() throws IOException {
+                return Files.newInputStream(file);
+            }
+
+            @Override
+            public int length() throws IOException {
+                return (int) Files.size(file);
+            }
+        }, null);
+    }
+
+    public static ImageAttachment of(byte[] image) {
+        return new ImageAttachment(new Source() {
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(image);
+            }
+
+            @Override
+            public int length() {
+                return image.length;
+            }
+        }, null);
+    }
+
+    public static ImageAttachment of(InputStream image) {
+        AtomicBoolean consumed = new AtomicBoolean();
+        return new ImageAttachment(new Source() {
+            @Override
+            public InputStream open() {
+                if (consumed.getAndSet(true)) {
+                    throw new IllegalStateException("InputStream image attachments can only be sent once");
+                }
+                return image;
+            }
+
+            @Override
+            public int length() {
+                return -1;
+            }
+        }, null);
+    }
+
+    /**
+     * Returns an attachment for the same image that is sent as {@code encoder} encodes it, or streamed
+     * as it is if {@code encoder} is {@code null}.
+     */
+    public ImageAttachment withEncoder(ImageEncoder encoder) {
+        return new ImageAttachment(source, encoder);
+    }
+
+    /**
+     * Writes the image as a base64 JSON string value.
+     */
+    public void writeTo(JsonGenerator gen) throws IOException {
+        if (encoder == null) {
+            try (InputStream in = source.open()) {
+                gen.writeBinary(in, source.length());
+            }
+            return;
+        }
+        byte[] encoded = encode();
+        if (gen instanceof UTF8JsonGenerator) {
+            // Base64 is plain ASCII and needs no escaping; request bodies are written with this generator
+            gen.writeRawUTF8String(encoded, 0, encoded.length);
+        } else {
+            gen.writeString(new String(encoded, StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Base64 form of the image as sent, for callers that need the {@link Message#getImages()} format.
+     */
+    public String toBase64() {
+        try {
+            return new String(encode(), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] encode() throws IOException {
+        byte[] image;
+        try (InputStream in = source.open()) {
+            image = in.readAllBytes();
+        }
+        return encoder != null ? encoder.encode(image) : Base64.getEncoder().encode(image);
+    }
+
+    private interface Source {
+
+        InputStream open() throws IOException;
+
+        /**
+         * Length in bytes, or -1 if unknown.
+         */
+        int length() throws IOException;
+    }
+}
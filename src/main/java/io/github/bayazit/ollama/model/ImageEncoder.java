@@ -0,0 +1,15 @@
+package io.github.bayazit.ollama.model;
+
+import java.io.IOException;
+
+/**
+ * Produces the form of an {@link ImageAttachment} that is sent, e.g. after downscaling or from a cache.
+ */
+@FunctionalInterface
+public interface ImageEncoder {
+
+    /**
+     * Returns the base64 encoding, as ASCII bytes, of {@code image} or of an image derived from it.
+     */
+    byte[] encode(byte[] image) throws IOException;
+}
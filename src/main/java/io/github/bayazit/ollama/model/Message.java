@@ -1,6 +1,12 @@
 package io.github.bayazit.ollama.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.github.bayazit.ollama.model.json.MessageDeserializer;
+import io.github.bayazit.ollama.model.json.MessageSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,9 +19,29 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = MessageSerializer.class)
+@JsonDeserialize(using = MessageDeserializer.class)
 public class Message {
 
     private Role role;
     private String content;
     private List<String> images;
+
+    /**
+     * Images streamed into the {@code images} array after {@link #images} when the message is sent.
+     */
+    @JsonIgnore
+    private List<ImageAttachment> attachments;
+
+    /**
+     * Tools the assistant asked to call.
+     */
+    @JsonProperty("tool_calls")
+    private List<ToolCall> toolCalls;
+
+    /**
+     * Name of the tool whose result a {@link Role#TOOL} message carries.
+     */
+    @JsonProperty("tool_name")
+    private String toolName;
 }
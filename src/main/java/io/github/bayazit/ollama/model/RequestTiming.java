@@ -0,0 +1,62 @@
+package io.github.bayazit.ollama.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Where the time of one API call went: client-side phases measured by the client, and the durations the
+ * server reported. Server durations are {@code null} when the response did not include them.
+ */
+@Value
+@Builder
+public class RequestTiming {
+
+    String endpoint;
+    String model;
+    Instant startedAt;
+
+    /**
+     * From sending the request until the response headers arrived, or until the first chunk for
+     * streamed calls. Covers encoding, connecting, uploading, server queueing and processing.
+     */
+    Duration timeToFirstByte;
+
+    /**
+     * From the response headers until the body was read and decoded; {@code null} for failed and streamed calls,
+     * where decoding is interleaved with generation.
+     */
+    Duration decode;
+
+    /**
+     * Wall-clock time of the whole call on the client.
+     */
+    Duration total;
+
+    Duration serverTotal;
+    Duration load;
+    Duration promptEval;
+    Duration eval;
+    Integer promptEvalCount;
+    Integer evalCount;
+
+    /**
+     * Why the call did not complete: the exception, or {@code "cancelled"} for streams cancelled by the
+     * subscriber. {@code null} for successful calls; failed calls carry no server durations.
+     */
+    String error;
+
+    /**
+     * Part of {@link #getTimeToFirstByte()} not reported by the server for non-streamed calls: connecting,
+     * transfer and waiting in the server's queue. {@code null} if unknown.
+     */
+    public Duration getOverhead() {
+        if (serverTotal == null || decode == null) {
+            return null;
+        }
+        Duration overhead = timeToFirstByte.minus(serverTotal);
+        return overhead.isNegative() ? Duration.ZERO : overhead;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.bayazit.ollama.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Model loaded in memory, as listed by {@code /api/ps}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RunningModel {
+
+    private String name;
+    private String model;
+
+    /**
+     * Total memory used by the loaded model in bytes.
+     */
+    private Long size;
+
+    private String digest;
+    private Map<String, Object> details;
+
+    @JsonProperty("expires_at")
+    private String expiresAt;
+
+    /**
+     * Part of {@link #size} held in GPU memory, in bytes.
+     */
+    @JsonProperty("size_vram")
+    private Long sizeVram;
+}
@@ -0,0 +1,17 @@
+package io.github.bayazit.ollama.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunningModelList {
+
+    private List<RunningModel> models;
+}
@@ -0,0 +1,34 @@
+package io.github.bayazit.ollama.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Tool the model may call, sent in {@link ChatRequest#getTools()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Tool {
+
+    @Builder.Default
+    private String type = "function";
+
+    private ToolFunction function;
+
+    /**
+     * Function tool whose arguments are described by the JSON schema {@code parameters}.
+     */
+    public static Tool function(String name, String description, Map<String, Object> parameters) {
+        return Tool.builder()
+                .function(new ToolFunction(name, description, parameters))
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.bayazit.ollama.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Call of a {@link Tool} requested by the model in {@link Message#getToolCalls()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ToolCall {
+
+    /**
+     * Call id; only sent by some server versions.
+     */
+    private String id;
+
+    private ToolCallFunction function;
+}
@@ -0,0 +1,21 @@
+package io.github.bayazit.ollama.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ToolCallFunction {
+
+    private Integer index;
+    private String name;
+    private Map<String, Object> arguments;
+}
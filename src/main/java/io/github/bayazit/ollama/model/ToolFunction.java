@@ -0,0 +1,25 @@
+package io.github.bayazit.ollama.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ToolFunction {
+
+    private String name;
+    private String description;
+
+    /**
+     * JSON schema of the arguments object.
+     */
+    private Map<String, Object> parameters;
+}
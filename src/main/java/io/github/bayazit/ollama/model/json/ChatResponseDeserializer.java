@@ -0,0 +1,43 @@
+package io.github.bayazit.ollama.model.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.bayazit.ollama.model.ChatResponse;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link ChatResponse} without reflection; a streamed chat decodes one per token.
+ * Unknown fields are skipped.
+ */
+public class ChatResponseDeserializer extends StdDeserializer<ChatResponse> {
+
+    public ChatResponseDeserializer() {
+        super(ChatResponse.class);
+    }
+
+    @Override
+    public ChatResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        ChatResponse response = new ChatResponse();
+        String field = p.currentToken() == JsonToken.FIELD_NAME ? p.currentName() : p.nextFieldName();
+        for (; field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "model" -> response.setModel(JsonReaders.text(p));
+                case "created_at" -> response.setCreatedAt(JsonReaders.text(p));
+                case "message" -> response.setMessage(MessageDeserializer.read(p, ctxt));
+                case "done" -> response.setDone(JsonReaders.bool(p));
+                case "total_duration" -> response.setTotalDuration(JsonReaders.number(p));
+                case "load_duration" -> response.setLoadDuration(JsonReaders.number(p));
+                case "prompt_eval_count" -> response.setPromptEvalCount(JsonReaders.integer(p));
+                case "prompt_eval_duration" -> response.setPromptEvalDuration(JsonReaders.number(p));
+                case "eval_count" -> response.setEvalCount(JsonReaders.integer(p));
+                case "eval_duration" -> response.setEvalDuration(JsonReaders.number(p));
+                default -> p.skipChildren();
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.bayazit.ollama.model.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import io.github.bayazit.ollama.model.ToolCall;
+import io.github.bayazit.ollama.model.ToolCallFunction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Reads {@link Message} without reflection; used for every chunk of a streamed chat response.
+ * Unknown fields are skipped.
+ */
+public class MessageDeserializer extends StdDeserializer<Message> {
+
+    private static final JavaType ARGUMENTS =
+            TypeFactory.defaultInstance().constructMapType(LinkedHashMap.class, String.class, Object.class);
+
+    public MessageDeserializer() {
+        super(Message.class);
+    }
+
+    @Override
+    public Message deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return read(p, ctxt);
+    }
+
+    static Message read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Message message = new Message();
+        String field = p.currentToken() == JsonToken.FIELD_NAME ? p.currentName() : p.nextFieldName();
+        for (; field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "role" -> {
+                    String role = JsonReaders.text(p);
+                    message.setRole(role != null ? Role.fromValue(role) : null);
+                }
+                case "content" -> message.setContent(JsonReaders.text(p));
+                case "images" -> message.setImages(JsonReaders.texts(p));
+                case "tool_calls" -> message.setToolCalls(toolCalls(p, ctxt));
+                case "tool_name" -> message.setToolName(JsonReaders.text(p));
+                default -> p.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private static List<ToolCall> toolCalls(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<ToolCall> calls = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            ToolCall call = new ToolCall();
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "id" -> call.setId(JsonReaders.text(p));
+                    case "function" -> call.setFunction(function(p, ctxt));
+                    default -> p.skipChildren();
+                }
+            }
+            calls.add(call);
+        }
+        return calls;
+    }
+
+    private static ToolCallFunction function(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        ToolCallFunction function = new ToolCallFunction();
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "index" -> function.setIndex(JsonReaders.integer(p));
+                case "name" -> function.setName(JsonReaders.text(p));
+                case "arguments" -> {
+                    if (p.currentToken() == JsonToken.START_OBJECT) {
+                        function.setArguments(ctxt.readValue(p, ARGUMENTS));
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return function;
+    }
+}
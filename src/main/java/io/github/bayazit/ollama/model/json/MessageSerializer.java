@@ -0,0 +1,52 @@
+package io.github.bayazit.ollama.model.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.bayazit.ollama.model.ImageAttachment;
+import io.github.bayazit.ollama.model.Message;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Message} field by field instead of through bean introspection. Messages make up most of
+ * a chat request body, so this is the hot path when sending long histories.
+ */
+public class MessageSerializer extends StdSerializer<Message> {
+
+    public MessageSerializer() {
+        super(Message.class);
+    }
+
+    @Override
+    public void serialize(Message message, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        if (message.getRole() != null) {
+            gen.writeStringField("role", message.getRole().getValue());
+        }
+        if (message.getContent() != null) {
+            gen.writeStringField("content", message.getContent());
+        }
+        if (message.getImages() != null || message.getAttachments() != null) {
+            gen.writeArrayFieldStart("images");
+            if (message.getImages() != null) {
+                for (String image : message.getImages()) {
+                    gen.writeString(image);
+                }
+            }
+            if (message.getAttachments() != null) {
+                for (ImageAttachment attachment : message.getAttachments()) {
+                    attachment.writeTo(gen);
+                }
+            }
+            gen.writeEndArray();
+        }
+        if (message.getToolCalls() != null) {
+            provider.defaultSerializeField("tool_calls", message.getToolCalls(), gen);
+        }
+        if (message.getToolName() != null) {
+            gen.writeStringField("tool_name", message.getToolName());
+        }
+        gen.writeEndObject();
+    }
+}
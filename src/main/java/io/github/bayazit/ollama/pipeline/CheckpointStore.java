@@ -0,0 +1,18 @@
+package io.github.bayazit.ollama.pipeline;
+
+import java.util.Optional;
+
+/**
+ * Persists completed chunk results so that a failed pipeline run can be resumed.
+ */
+public interface CheckpointStore<P> {
+
+    Optional<P> load(int index, String chunk);
+
+    void save(int index, String chunk, P result);
+
+    /**
+     * Removes all checkpoints, called after the pipeline completed successfully.
+     */
+    void clear();
+}
@@ -0,0 +1,19 @@
+package io.github.bayazit.ollama.pipeline;
+
+import lombok.Value;
+
+/**
+ * Result of mapping a single chunk, published to the pipeline listener as chunks complete.
+ */
+@Value
+public class ChunkResult<P> {
+
+    int index;
+    int totalChunks;
+    P result;
+
+    /**
+     * {@code true} when the result was restored from a checkpoint instead of being computed.
+     */
+    boolean restored;
+}
@@ -0,0 +1,106 @@
+package io.github.bayazit.ollama.pipeline;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stores one JSON file per completed chunk in a local directory. Each checkpoint records a hash of
+ * the chunk text, so a checkpoint is only reused when the input chunk is unchanged.
+ */
+public class FileCheckpointStore<P> implements CheckpointStore<P> {
+
+    private static final String PREFIX = "chunk-";
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final JavaType resultType;
+
+    public FileCheckpointStore(Path directory, Class<P> resultType) {
+        this(directory, new ObjectMapper(), new ObjectMapper().constructType(resultType));
+    }
+
+    public FileCheckpointStore(Path directory, ObjectMapper objectMapper, JavaType resultType) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.resultType = resultType;
+    }
+
+    @Override
+    public Optional<P> load(int index, String chunk) {
+        Path file = file(index);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode node = objectMapper.readTree(file.toFile());
+            if (!hash(chunk).equals(node.path("hash").asText())) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(objectMapper.convertValue(node.get("result"), resultType));
+        } catch (IOException e) {
+            // A torn or unreadable checkpoint is treated as missing and recomputed
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(int index, String chunk, P result) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("index", index);
+        node.put("hash", hash(chunk));
+        node.set("result", objectMapper.valueToTree(result));
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, PREFIX, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), node);
+            Files.move(tmp, file(index), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write checkpoint for chunk " + index, e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear checkpoints in " + directory, e);
+        }
+    }
+
+    private Path file(int index) {
+        return directory.resolve(String.format("%s%06d%s", PREFIX, index, SUFFIX));
+    }
+
+    private static String hash(String chunk) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(chunk.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.bayazit.ollama.pipeline;
+
+import java.util.List;
+
+public class MapReduceException extends RuntimeException {
+
+    public enum Stage {
+        MAP, REDUCE
+    }
+
+    private final Stage stage;
+    private final List<Integer> failed;
+
+    public MapReduceException(String message, List<Integer> failedChunks, Throwable cause) {
+        this(message, Stage.MAP, failedChunks, cause);
+    }
+
+    public MapReduceException(String message, Stage stage, List<Integer> failed, Throwable cause) {
+        super(message, cause);
+        this.stage = stage;
+        this.failed = List.copyOf(failed);
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Indices of the chunks whose map call failed; empty if the failure was in the reduce stage.
+     */
+    public List<Integer> getFailedChunks() {
+        return stage == Stage.MAP ? failed : List.of();
+    }
+
+    /**
+     * Indices, within their reduce level, of the groups whose reduce call failed; empty if the failure
+     * was in the map stage.
+     */
+    public List<Integer> getFailedGroups() {
+        return stage == Stage.REDUCE ? failed : List.of();
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.bayazit.ollama.pipeline;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Splits an input into chunks, maps every chunk with bounded parallelism and reduces the partial
+ * results in a tree of at most {@code fanIn} results per reduce call.
+ * <p>
+ * Completed chunk results are published to the listener as they finish, either in chunk order or in
+ * completion order, and are written to the optional {@link CheckpointStore} so that a failed run can
+ * be resumed without recomputing them.
+ */
+public class MapReducePipeline<P> {
+
+    private final Function<String, List<String>> splitter;
+    private final Function<String, P> mapper;
+    private final Function<List<P>, P> reducer;
+    private final int parallelism;
+    private final int fanIn;
+    private final boolean ordered;
+    private final Executor executor;
+    private final CheckpointStore<P> checkpointStore;
+    private final Consumer<ChunkResult<P>> listener;
+
+    @Builder
+    private MapReducePipeline(Function<String, List<String>> splitter,
+                              Function<String, P> mapper,
+                              Function<List<P>, P> reducer,
+                              Integer parallelism,
+                              Integer fanIn,
+                              Boolean ordered,
+                              Executor executor,
+                              CheckpointStore<P> checkpointStore,
+                              Consumer<ChunkResult<P>> listener) {
+        if (splitter == null || mapper == null || reducer == null) {
+            throw new IllegalArgumentException("splitter, mapper and reducer are required");
+        }
+        this.splitter = splitter;
+        this.mapper = mapper;
+        this.reducer = reducer;
+        this.parallelism = parallelism != null ? parallelism : 4;
+        this.fanIn = fanIn != null ? fanIn : 8;
+        this.ordered = ordered == null || ordered;
+        this.executor = executor;
+        this.checkpointStore = checkpointStore;
+        this.listener = listener;
+        if (this.parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (this.fanIn < 2) {
+            throw new IllegalArgumentException("fanIn must be at least 2");
+        }
+    }
+
+    /**
+     * Pipeline that maps every chunk through {@code /api/generate} with {@code mapPrompt} prepended,
+     * and reduces partial answers by asking the model to combine them with {@code reducePrompt}.
+     */
+    public static MapReducePipelineBuilder<String> generate(OllamaClient client, String model,
+                                                            String mapPrompt, String reducePrompt) {
+        Function<String, String> call = prompt -> client.generate(GenerateRequest.builder()
+                .model(model)
+                .prompt(prompt)
+                .build()).getResponse();
+        return MapReducePipeline.<String>builder()
+                .splitter(TextSplitter.fixedSize(8000, 200))
+                .mapper(chunk -> call.apply(mapPrompt + "\n\n" + chunk))
+                .reducer(parts -> call.apply(reducePrompt + "\n\n" + String.join("\n\n---\n\n", parts)));
+    }
+
+    public P run(String input) {
+        List<String> chunks = splitter.apply(input);
+        if (chunks.isEmpty()) {
+            throw new IllegalArgumentException("Input produced no chunks");
+        }
+        List<P> mapped = map(chunks);
+        P result = reduce(mapped);
+        if (checkpointStore != null) {
+            checkpointStore.clear();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<P> map(List<String> chunks) {
+        int total = chunks.size();
+        Object[] results = new Object[total];
+        Publisher publisher = new Publisher(results);
+        List<Integer> pending = new ArrayList<>();
+
+        for (int i = 0; i < total; i++) {
+            Optional<P> restored = checkpointStore != null
+                    ? checkpointStore.load(i, chunks.get(i))
+                    : Optional.empty();
+            if (restored.isPresent()) {
+                results[i] = restored.get();
+                publisher.completed(i, true);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        runBounded(pending.size(), n -> {
+            int index = pending.get(n);
+            return () -> mapper.apply(chunks.get(index));
+        }, (value, n) -> {
+            int index = pending.get(n);
+            results[index] = value;
+            if (checkpointStore != null) {
+                checkpointStore.save(index, chunks.get(index), value);
+            }
+            publisher.completed(index, false);
+        }, n -> pending.get(n), MapReduceException.Stage.MAP);
+
+        return (List<P>) Arrays.asList(results);
+    }
+
+    @SuppressWarnings("unchecked")
+    private P reduce(List<P> mapped) {
+        List<P> level = mapped;
+        while (level.size() > 1) {
+            List<P> current = level;
+            int groups = (current.size() + fanIn - 1) / fanIn;
+            Object[] next = new Object[groups];
+            runBounded(groups,
+                    g -> () -> reducer.apply(current.subList(g * fanIn, Math.min(current.size(), (g + 1) * fanIn))),
+                    (value, g) -> next[g] = value,
+                    g -> g,
+                    MapReduceException.Stage.REDUCE);
+            level = (List<P>) Arrays.asList(next);
+        }
+        return level.get(0);
+    }
+
+    /**
+     * Runs {@code count} tasks keeping at most {@code parallelism} in flight. Results are handed to
+     * {@code onResult} on the calling thread. After the first failure no new tasks are started, the
+     * in-flight ones are drained and a {@link MapReduceException} is thrown.
+     */
+    private <T> void runBounded(int count, IntFunction<Callable<T>> tasks, ObjIntConsumer<T> onResult,
+                                IntFunction<Integer> chunkIndex, MapReduceException.Stage stage) {
+        if (count == 0) {
+            return;
+        }
+        ExecutorService owned = executor == null
+                ? Executors.newFixedThreadPool(Math.min(parallelism, count))
+                : null;
+        CompletionService<T> completion = new ExecutorCompletionService<>(owned != null ? owned : executor);
+        Map<Future<T>, Integer> inFlight = new HashMap<>();
+        List<Integer> failed = new ArrayList<>();
+        Throwable firstFailure = null;
+        int submitted = 0;
+        try {
+            while (submitted < count && inFlight.size() < parallelism) {
+                inFlight.put(completion.submit(tasks.apply(submitted)), submitted++);
+            }
+            while (!inFlight.isEmpty()) {
+                Future<T> future = completion.take();
+                int n = inFlight.remove(future);
+                try {
+                    onResult.accept(future.get(), n);
+                } catch (ExecutionException e) {
+                    failed.add(chunkIndex.apply(n));
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                }
+                if (failed.isEmpty() && submitted < count) {
+                    inFlight.put(completion.submit(tasks.apply(submitted)), submitted++);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.keySet().forEach(f -> f.cancel(true));
+            List<Integer> interrupted = inFlight.values().stream().map(chunkIndex::apply).toList();
+            throw new MapReduceException("Interrupted while waiting for " + describe(stage) + " results",
+                    stage, interrupted, e);
+        } finally {
+            if (owned != null) {
+                owned.shutdownNow();
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new MapReduceException("Failed to process " + failed.size() + " " + describe(stage) + "(s): "
+                    + failed, stage, failed, firstFailure);
+        }
+    }
+
+    private static String describe(MapReduceException.Stage stage) {
+        return stage == MapReduceException.Stage.MAP ? "chunk" : "reduce group";
+    }
+
+    /**
+     * Publishes completed chunks to the listener, buffering out-of-order completions in ordered mode.
+     * Only ever called from the thread running the pipeline.
+     */
+    private class Publisher {
+
+        private final Object[] results;
+        private final boolean[] done;
+        private final boolean[] restored;
+        private int next;
+
+        Publisher(Object[] results) {
+            this.results = results;
+            this.done = new boolean[results.length];
+            this.restored = new boolean[results.length];
+        }
+
+        void completed(int index, boolean fromCheckpoint) {
+            if (listener == null) {
+                return;
+            }
+            if (!ordered) {
+                publish(index, fromCheckpoint);
+                return;
+            }
+            done[index] = true;
+            restored[index] = fromCheckpoint;
+            while (next < done.length && done[next]) {
+                publish(next, restored[next]);
+                next++;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void publish(int index, boolean fromCheckpoint) {
+            listener.accept(new ChunkResult<>(index, results.length, (P) results[index], fromCheckpoint));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.bayazit.ollama.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public final class TextSplitter {
+
+    private TextSplitter() {
+    }
+
+    /**
+     * Splits text into chunks of at most {@code maxChars} characters, preferring to break on
+     * paragraph, line or word boundaries, with {@code overlap} characters repeated between chunks.
+     */
+    public static Function<String, List<String>> fixedSize(int maxChars, int overlap) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive");
+        }
+        if (overlap < 0 || overlap >= maxChars) {
+            throw new IllegalArgumentException("overlap must be in [0, maxChars)");
+        }
+        return text -> split(text, maxChars, overlap);
+    }
+
+    static List<String> split(String text, int maxChars, int overlap) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            int end = Math.min(start + maxChars, length);
+            if (end < length) {
+                end = breakPoint(text, start, end);
+            }
+            chunks.add(text.substring(start, end));
+            if (end >= length) {
+                break;
+            }
+            start = Math.max(end - overlap, start + 1);
+        }
+        return chunks;
+    }
+
+    private static int breakPoint(String text, int start, int end) {
+        int min = start + (end - start) / 2;
+        int paragraph = text.lastIndexOf("\n\n", end - 2);
+        if (paragraph >= min) {
+            return paragraph + 2;
+        }
+        for (int i = end - 1; i >= min; i--) {
+            if (text.charAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        for (int i = end - 1; i >= min; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.bayazit.ollama.prefix;
+
+import io.github.bayazit.ollama.model.GenerateRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.github.bayazit.ollama.prefix.SharedPrefix.nullToEmpty;
+
+/**
+ * Shared prefixes of generate requests, either declared up front or detected from traffic.
+ * <p>
+ * Detection hashes the system prompt plus the prompt cut at every multiple of {@code blockSize}
+ * characters. A cut seen in {@code minOccurrences} requests for the same model becomes a detected
+ * prefix; requests are matched against the longest declared or detected prefix they start with.
+ * At most {@code maxTracked} candidate cuts and detected prefixes are kept, evicting the least recently
+ * seen, so prefixes that stop occurring make room for new ones.
+ */
+public class PrefixRegistry {
+
+    private final int blockSize;
+    private final int minOccurrences;
+    private final List<SharedPrefix> declared = new CopyOnWriteArrayList<>();
+    private final Map<Long, SharedPrefix> detected;
+    private final Map<Long, Integer> candidates;
+
+    public PrefixRegistry() {
+        this(512, 3, 4096);
+    }
+
+    /**
+     * @param minOccurrences requests sharing a cut before it is treated as a prefix, or 0 to only use
+     *                       declared prefixes
+     */
+    public PrefixRegistry(int blockSize, int minOccurrences, int maxTracked) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+        this.blockSize = blockSize;
+        this.minOccurrences = minOccurrences;
+        this.candidates = lru(maxTracked);
+        this.detected = lru(maxTracked);
+    }
+
+    public SharedPrefix declare(String id, String model, String system, String prompt) {
+        SharedPrefix prefix = new SharedPrefix(id, model, nullToEmpty(system), nullToEmpty(prompt), true);
+        declared.removeIf(existing -> existing.getId().equals(id));
+        declared.add(prefix);
+        return prefix;
+    }
+
+    public List<SharedPrefix> getPrefixes() {
+        List<SharedPrefix> prefixes = new ArrayList<>(declared);
+        synchronized (detected) {
+            prefixes.addAll(detected.values());
+        }
+        return prefixes;
+    }
+
+    /**
+     * Returns the longest prefix {@code request} starts with and records its cuts for detection.
+     */
+    public Optional<SharedPrefix> resolve(GenerateRequest request) {
+        SharedPrefix best = null;
+        for (SharedPrefix prefix : declared) {
+            if (prefix.matches(request) && (best == null || prefix.length() > best.length())) {
+                best = prefix;
+            }
+        }
+        if (minOccurrences > 0) {
+            SharedPrefix found = detect(request);
+            if (found != null && (best == null || found.length() > best.length())) {
+                best = found;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private SharedPrefix detect(GenerateRequest request) {
+        String model = nullToEmpty(request.getModel());
+        String system = nullToEmpty(request.getSystem());
+        String prompt = nullToEmpty(request.getPrompt());
+        long hash = hash(hash(1125899906842597L, model), system);
+
+        SharedPrefix longest = null;
+        int hashed = 0;
+        // a cut must leave some prompt after it, otherwise every repeated request would be a "prefix"
+        for (int cut = system.isEmpty() ? blockSize : 0; cut < prompt.length(); cut += blockSize) {
+            for (; hashed < cut; hashed++) {
+                hash = 31 * hash + prompt.charAt(hashed);
+            }
+            SharedPrefix prefix;
+            synchronized (detected) {
+                prefix = detected.get(hash);
+            }
+            if (prefix != null && prefix.matches(request)) {
+                longest = prefix;
+            } else if (prefix == null && count(hash) >= minOccurrences) {
+                prefix = new SharedPrefix("auto-" + Long.toHexString(hash), request.getModel(), system,
+                        prompt.substring(0, cut), false);
+                synchronized (detected) {
+                    detected.putIfAbsent(hash, prefix);
+                }
+                longest = prefix;
+            }
+        }
+        return longest;
+    }
+
+    private int count(long hash) {
+        synchronized (candidates) {
+            return candidates.merge(hash, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Access-ordered map dropping its least recently used entry beyond {@code maxSize}; callers
+     * synchronize on it.
+     */
+    private static <V> Map<Long, V> lru(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        // separator so that ("ab", "c") and ("a", "bc") differ
+        return 31 * hash + 0xFFFF;
+    }
+}
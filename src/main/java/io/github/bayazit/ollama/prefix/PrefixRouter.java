@@ -0,0 +1,292 @@
+package io.github.bayazit.ollama.prefix;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import io.github.bayazit.ollama.model.GenerateResponse;
+import io.github.bayazit.ollama.model.OllamaOptions;
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes generate requests across Ollama nodes so that requests sharing a prefix from the
+ * {@link PrefixRegistry} land on a node whose prompt cache already holds it.
+ * <p>
+ * A node counts as warm for a prefix and model for {@code keepAlive} after it last evaluated it, and
+ * requests with a prefix are sent with that {@code keep_alive} unless they set their own. Requests go to
+ * the least busy warm node, or to the least busy node overall when none is warm. In speculative mode the
+ * first evaluation of a prefix also pre-evaluates it on every other node with a one-token generate
+ * call. A {@code controlFraction} of prefixed requests ignores affinity, which gives a baseline for the
+ * prompt evaluation counts in {@link #stats()}.
+ * <p>
+ * Warm-up calls run on the given {@code executor}, or on a thread pool of the router's own that
+ * {@link #close()} shuts down.
+ */
+public class PrefixRouter implements AutoCloseable {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final PrefixRegistry registry;
+    private final Duration keepAlive;
+    private final boolean speculative;
+    private final double controlFraction;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final Map<String, Map<Node, Long>> warm = new ConcurrentHashMap<>();
+    private final Set<String> warming = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    private final LongAdder unmatched = new LongAdder();
+    private final Group affinity = new Group();
+    private final Group control = new Group();
+    private final Group cold = new Group();
+    private final LongAdder warmups = new LongAdder();
+    private final LongAdder failedWarmups = new LongAdder();
+
+    @Builder
+    private PrefixRouter(Map<String, OllamaClient> nodes, PrefixRegistry registry, Duration keepAlive,
+                         Boolean speculative, Double controlFraction, Executor executor) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("at least one node is required");
+        }
+        nodes.forEach((name, client) -> this.nodes.add(new Node(name, client)));
+        this.registry = registry != null ? registry : new PrefixRegistry();
+        this.keepAlive = keepAlive != null ? keepAlive : Duration.ofMinutes(30);
+        this.speculative = speculative == null || speculative;
+        this.controlFraction = controlFraction != null ? controlFraction : 0;
+        this.ownExecutor = executor != null ? null : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ollama-prefix-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = executor != null ? executor : ownExecutor;
+        if (this.keepAlive.isNegative() || this.keepAlive.isZero()) {
+            throw new IllegalArgumentException("keepAlive must be positive");
+        }
+        if (this.controlFraction < 0 || this.controlFraction > 1) {
+            throw new IllegalArgumentException("controlFraction must be between 0 and 1");
+        }
+    }
+
+    public PrefixRegistry getRegistry() {
+        return registry;
+    }
+
+    public GenerateResponse generate(GenerateRequest request) {
+        Optional<SharedPrefix> match = registry.resolve(request);
+        if (match.isEmpty()) {
+            unmatched.increment();
+            return call(leastBusy(nodes), request);
+        }
+        SharedPrefix prefix = match.get();
+        String key = key(prefix, request.getModel());
+        if (request.getKeepAlive() == null) {
+            request = withKeepAlive(request, keepAliveValue());
+        }
+
+        List<Node> warmNodes = warmNodes(key);
+        Group group;
+        Node node;
+        if (warmNodes.isEmpty()) {
+            group = cold;
+            node = leastBusy(nodes);
+        } else if (controlFraction > 0 && ThreadLocalRandom.current().nextDouble() < controlFraction) {
+            group = control;
+            node = leastBusy(nodes);
+        } else {
+            group = affinity;
+            node = leastBusy(warmNodes);
+        }
+
+        GenerateResponse response = call(node, request);
+        markWarm(key, node);
+        group.record(response);
+        if (group == cold && speculative) {
+            warm(prefix, request.getModel());
+        }
+        return response;
+    }
+
+    /**
+     * Pre-evaluates {@code prefix} for {@code model} on every node that is not already warm for it.
+     * The returned future completes when all warm-up calls have finished; failed calls only count
+     * towards {@link PrefixStats#getFailedWarmups()}.
+     */
+    public CompletableFuture<Void> warm(SharedPrefix prefix, String model) {
+        String key = key(prefix, model);
+        List<Node> warmNodes = warmNodes(key);
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (Node node : nodes) {
+            if (warmNodes.contains(node) || !warming.add(key + '\n' + node.name)) {
+                continue;
+            }
+            calls.add(CompletableFuture.runAsync(() -> {
+                try {
+                    call(node, GenerateRequest.builder()
+                            .model(model)
+                            .system(prefix.getSystem().isEmpty() ? null : prefix.getSystem())
+                            .prompt(prefix.getPrompt())
+                            .keepAlive(keepAliveValue())
+                            .options(OllamaOptions.builder().numPredict(1).build())
+                            .build());
+                    markWarm(key, node);
+                    warmups.increment();
+                } catch (RuntimeException e) {
+                    failedWarmups.increment();
+                } finally {
+                    warming.remove(key + '\n' + node.name);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Names of the nodes currently considered warm for {@code prefix} and {@code model}.
+     */
+    public Set<String> warmNodes(SharedPrefix prefix, String model) {
+        Set<String> names = new LinkedHashSet<>();
+        warmNodes(key(prefix, model)).forEach(node -> names.add(node.name));
+        return names;
+    }
+
+    public PrefixStats stats() {
+        return PrefixStats.builder()
+                .unmatchedRequests(unmatched.sum())
+                .affinityRequests(affinity.requests.sum())
+                .affinityPromptEvalTokens(affinity.promptEvalTokens.sum())
+                .controlRequests(control.requests.sum())
+                .controlPromptEvalTokens(control.promptEvalTokens.sum())
+                .coldRequests(cold.requests.sum())
+                .coldPromptEvalTokens(cold.promptEvalTokens.sum())
+                .warmups(warmups.sum())
+                .failedWarmups(failedWarmups.sum())
+                .prefixes(registry.getPrefixes().size())
+                .build();
+    }
+
+    /**
+     * Stops the router's own warm-up pool, interrupting running warm-ups. A given executor is left to
+     * its owner.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+        }
+    }
+
+    private GenerateResponse call(Node node, GenerateRequest request) {
+        node.inFlight.incrementAndGet();
+        try {
+            return node.client.generate(request);
+        } finally {
+            node.inFlight.decrementAndGet();
+        }
+    }
+
+    private List<Node> warmNodes(String key) {
+        Map<Node, Long> evaluated = warm.get(key);
+        if (evaluated == null) {
+            return List.of();
+        }
+        long now = System.nanoTime();
+        evaluated.values().removeIf(at -> now - at > keepAlive.toNanos());
+        // Forget prefixes that are cold everywhere, e.g. evicted detected ones
+        warm.computeIfPresent(key, (k, nodes) -> nodes.isEmpty() ? null : nodes);
+        List<Node> warmNodes = new ArrayList<>();
+        for (Node node : nodes) {
+            if (evaluated.containsKey(node)) {
+                warmNodes.add(node);
+            }
+        }
+        return warmNodes;
+    }
+
+    private void markWarm(String key, Node node) {
+        warm.compute(key, (k, nodes) -> {
+            Map<Node, Long> evaluated = nodes != null ? nodes : new ConcurrentHashMap<>();
+            evaluated.put(node, System.nanoTime());
+            return evaluated;
+        });
+    }
+
+    /**
+     * Node with the fewest requests in flight, starting the scan at a rotating offset so that ties are
+     * spread evenly.
+     */
+    private Node leastBusy(List<Node> candidates) {
+        int start = Math.floorMod(rotation.getAndIncrement(), candidates.size());
+        Node best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Node node = candidates.get((start + i) % candidates.size());
+            if (best == null || node.inFlight.get() < best.inFlight.get()) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copy of {@code request} with {@code keepAlive}, leaving the caller's request untouched.
+     */
+    private static GenerateRequest withKeepAlive(GenerateRequest request, String keepAlive) {
+        return GenerateRequest.builder()
+                .model(request.getModel())
+                .prompt(request.getPrompt())
+                .system(request.getSystem())
+                .stream(request.getStream())
+                .images(request.getImages())
+                .format(request.getFormat())
+                .context(request.getContext())
+                .options(request.getOptions())
+                .keepAlive(keepAlive)
+                .build();
+    }
+
+    private String keepAliveValue() {
+        return keepAlive.toSeconds() + "s";
+    }
+
+    private static String key(SharedPrefix prefix, String model) {
+        return prefix.getId() + '\n' + model;
+    }
+
+    private static final class Node {
+
+        private final String name;
+        private final OllamaClient client;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Node(String name, OllamaClient client) {
+            this.name = name;
+            this.client = client;
+        }
+    }
+
+    private static final class Group {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder promptEvalTokens = new LongAdder();
+
+        void record(GenerateResponse response) {
+            requests.increment();
+            if (response != null && response.getPromptEvalCount() != null) {
+                promptEvalTokens.add(response.getPromptEvalCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.bayazit.ollama.prefix;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Point-in-time counters of a {@link PrefixRouter}.
+ * <p>
+ * Requests matching a prefix fall into one of three groups: {@code affinity} requests were sent to a
+ * node that had recently evaluated the prefix, {@code control} requests were deliberately routed
+ * without affinity, and {@code cold} requests had no warm node to go to. Comparing the average
+ * {@code prompt_eval_count} of the groups shows how much prompt evaluation affinity saves.
+ */
+@Value
+@Builder
+public class PrefixStats {
+
+    long unmatchedRequests;
+    long affinityRequests;
+    long affinityPromptEvalTokens;
+    long controlRequests;
+    long controlPromptEvalTokens;
+    long coldRequests;
+    long coldPromptEvalTokens;
+    long warmups;
+    long failedWarmups;
+    int prefixes;
+
+    public double getAverageAffinityPromptEvalTokens() {
+        return affinityRequests > 0 ? (double) affinityPromptEvalTokens / affinityRequests : 0;
+    }
+
+    public double getAverageControlPromptEvalTokens() {
+        return controlRequests > 0 ? (double) controlPromptEvalTokens / controlRequests : 0;
+    }
+
+    public double getAverageColdPromptEvalTokens() {
+        return coldRequests > 0 ? (double) coldPromptEvalTokens / coldRequests : 0;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.bayazit.ollama.prefix;
+
+import io.github.bayazit.ollama.model.GenerateRequest;
+import lombok.Value;
+
+/**
+ * Fixed start of generate requests: an exact system prompt followed by the beginning of the prompt.
+ * A {@code null} model matches requests for any model.
+ */
+@Value
+public class SharedPrefix {
+
+    String id;
+    String model;
+    String system;
+    String prompt;
+
+    /**
+     * Whether the prefix was declared up front rather than detected from traffic.
+     */
+    boolean declared;
+
+    public boolean matches(GenerateRequest request) {
+        return (model == null || model.equals(request.getModel()))
+                && system.equals(nullToEmpty(request.getSystem()))
+                && nullToEmpty(request.getPrompt()).startsWith(prompt);
+    }
+
+    int length() {
+        return system.length() + prompt.length();
+    }
+
+    static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.bayazit.ollama.ratelimit;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String key;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String key, long tokens, Duration retryAfter) {
+        super("Token budget exceeded for '" + key + "' (" + tokens + " tokens), retry after " + retryAfter);
+        this.key = key;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.bayazit.ollama.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the whole state is a single
+ * "theoretical arrival time" that is advanced by compare-and-set, so concurrent callers never block
+ * each other and refunds are a plain subtraction.
+ */
+final class TokenBucket {
+
+    private final double nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double tokensPerSecond, long burst) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("tokensPerSecond must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.nanosPerToken = 1_000_000_000.0 / tokensPerSecond;
+        this.burstNanos = (long) (burst * nanosPerToken);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Consumes {@code tokens} if they are available right now.
+     *
+     * @return 0 when consumed, otherwise the nanoseconds until they would be available
+     */
+    long tryConsume(long tokens, long now) {
+        return reserve(tokens, 0, now);
+    }
+
+    /**
+     * Consumes {@code tokens}, going into debt if they become available within {@code maxWaitNanos}.
+     * Otherwise nothing is consumed, so other callers never see a charge that is then refunded.
+     *
+     * @return the nanoseconds the caller has to wait before the consumption is within budget; nothing was
+     *         consumed if this exceeds {@code maxWaitNanos}
+     */
+    long reserve(long tokens, long maxWaitNanos, long now) {
+        long cost = cost(tokens);
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + cost;
+            long wait = Math.max(0, next - now - burstNanos);
+            if (wait > maxWaitNanos) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Corrects a previous consumption by {@code tokens}, positive to charge more and negative to refund.
+     */
+    void adjust(long tokens) {
+        if (tokens != 0) {
+            theoreticalArrival.addAndGet(tokens > 0 ? cost(tokens) : -cost(-tokens));
+        }
+    }
+
+    long available(long now) {
+        long debt = Math.max(0, theoreticalArrival.get() - now);
+        return (long) ((burstNanos - debt) / nanosPerToken);
+    }
+
+    private long cost(long tokens) {
+        return (long) Math.ceil(tokens * nanosPerToken);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.bayazit.ollama.ratelimit;
+
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.OllamaOptions;
+
+/**
+ * Estimates the token cost of a request before it is sent: prompt characters divided by
+ * {@code charsPerToken}, plus {@code num_predict} or a default completion budget.
+ */
+public class TokenEstimator {
+
+    private final double charsPerToken;
+    private final int defaultCompletionTokens;
+
+    public TokenEstimator(double charsPerToken, int defaultCompletionTokens) {
+        if (charsPerToken <= 0) {
+            throw new IllegalArgumentException("charsPerToken must be positive");
+        }
+        this.charsPerToken = charsPerToken;
+        this.defaultCompletionTokens = defaultCompletionTokens;
+    }
+
+    public long estimate(ChatRequest request) {
+        long chars = 0;
+        if (request.getMessages() != null) {
+            for (Message message : request.getMessages()) {
+                chars += length(message.getContent());
+            }
+        }
+        return promptTokens(chars) + completionTokens(request.getOptions());
+    }
+
+    public long estimate(GenerateRequest request) {
+        long chars = length(request.getPrompt()) + length(request.getSystem());
+        return promptTokens(chars) + completionTokens(request.getOptions());
+    }
+
+    public long estimate(EmbedRequest request) {
+        long chars = 0;
+        if (request.getInput() != null) {
+            for (String input : request.getInput()) {
+                chars += length(input);
+            }
+        }
+        return promptTokens(chars);
+    }
+
+    private long promptTokens(long chars) {
+        return (long) Math.ceil(chars / charsPerToken);
+    }
+
+    private long completionTokens(OllamaOptions options) {
+        if (options != null && options.getNumPredict() != null && options.getNumPredict() >= 0) {
+            return options.getNumPredict();
+        }
+        return defaultCompletionTokens;
+    }
+
+    private static long length(String text) {
+        return text != null ? text.length() : 0;
+    }
+}
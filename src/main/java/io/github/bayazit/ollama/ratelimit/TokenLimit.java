@@ -0,0 +1,23 @@
+package io.github.bayazit.ollama.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenLimit {
+
+    /**
+     * Sustained budget of prompt plus generated tokens per second.
+     */
+    private double tokensPerSecond;
+
+    /**
+     * Maximum number of tokens that can be spent at once after an idle period.
+     */
+    private long burst;
+}
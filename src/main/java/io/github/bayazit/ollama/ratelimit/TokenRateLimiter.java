@@ -0,0 +1,212 @@
+package io.github.bayazit.ollama.ratelimit;
+
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.ChatResponse;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import io.github.bayazit.ollama.model.GenerateResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Rate limits Ollama traffic by tokens rather than requests, with one bucket per tenant or API key.
+ * <p>
+ * A call is charged its {@link TokenEstimator estimated} cost up front. Once the response arrives, the
+ * charge is corrected to the actual {@code prompt_eval_count + eval_count}, so the budget converges on
+ * real usage even when estimates are off. Each bucket is a single atomic word updated by
+ * compare-and-set and keys are spread over a {@link ConcurrentHashMap}, so concurrent requests never
+ * take a lock on the request path.
+ */
+public class TokenRateLimiter {
+
+    private final TokenLimit defaultLimit;
+    private final Map<String, TokenLimit> limits;
+    private final TokenEstimator estimator;
+    private final long maxWaitNanos;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenRateLimiter(TokenLimit defaultLimit, Map<String, TokenLimit> limits,
+                            TokenEstimator estimator, Duration maxWait) {
+        this.defaultLimit = defaultLimit;
+        this.limits = Map.copyOf(limits);
+        this.estimator = estimator;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public ChatResponse chat(String key, ChatRequest request, Function<ChatRequest, ChatResponse> call) {
+        Reservation reservation = acquire(key, estimator.estimate(request));
+        ChatResponse response = invoke(reservation, call, request);
+        reservation.reconcile(response);
+        return response;
+    }
+
+    public GenerateResponse generate(String key, GenerateRequest request,
+                                     Function<GenerateRequest, GenerateResponse> call) {
+        Reservation reservation = acquire(key, estimator.estimate(request));
+        GenerateResponse response = invoke(reservation, call, request);
+        reservation.reconcile(response);
+        return response;
+    }
+
+    /**
+     * Charges the estimated input size, corrected to the response's {@code prompt_eval_count}.
+     */
+    public EmbedResponse embed(String key, EmbedRequest request, Function<EmbedRequest, EmbedResponse> call) {
+        Reservation reservation = acquire(key, estimator.estimate(request));
+        EmbedResponse response = invoke(reservation, call, request);
+        reservation.reconcile(response);
+        return response;
+    }
+
+    /**
+     * Runs {@code call}, returning the charge if it fails so that requests which never completed do not
+     * use up the budget.
+     */
+    private static <Q, R> R invoke(Reservation reservation, Function<Q, R> call, Q request) {
+        try {
+            return call.apply(request);
+        } catch (RuntimeException | Error e) {
+            reservation.cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Charges {@code tokens} to {@code key}, waiting up to the configured maximum wait for the budget.
+     *
+     * @throws RateLimitExceededException if the budget is not available within the maximum wait
+     */
+    public Reservation acquire(String key, long tokens) {
+        TokenBucket bucket = bucket(key);
+        long wait = bucket.reserve(tokens, maxWaitNanos, System.nanoTime());
+        if (wait > maxWaitNanos) {
+            rejected.increment();
+            throw new RateLimitExceededException(key, tokens, Duration.ofNanos(wait));
+        }
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                bucket.adjust(-tokens);
+                throw new IllegalStateException("Interrupted while waiting for token budget", e);
+            }
+        }
+        consumed.add(tokens);
+        return new Reservation(bucket, tokens);
+    }
+
+    /**
+     * Charges {@code tokens} to {@code key} only if they are available without waiting.
+     */
+    public Optional<Reservation> tryAcquire(String key, long tokens) {
+        TokenBucket bucket = bucket(key);
+        if (bucket.tryConsume(tokens, System.nanoTime()) > 0) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        consumed.add(tokens);
+        return Optional.of(new Reservation(bucket, tokens));
+    }
+
+    public long getAvailableTokens(String key) {
+        return bucket(key).available(System.nanoTime());
+    }
+
+    public long getConsumedTokens() {
+        return consumed.sum();
+    }
+
+    public long getRejectedRequests() {
+        return rejected.sum();
+    }
+
+    public TokenEstimator getEstimator() {
+        return estimator;
+    }
+
+    private TokenBucket bucket(String key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key, k -> {
+            TokenLimit limit = limits.getOrDefault(k, defaultLimit);
+            return new TokenBucket(limit.getTokensPerSecond(), limit.getBurst());
+        });
+    }
+
+    /**
+     * Tokens charged for a single call. Reconcile it with the response, or with the final chunk of a
+     * stream, to replace the estimate with the actual token counts.
+     */
+    public final class Reservation {
+
+        private final TokenBucket bucket;
+        private final long estimated;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(TokenBucket bucket, long estimated) {
+            this.bucket = bucket;
+            this.estimated = estimated;
+        }
+
+        public long getEstimatedTokens() {
+            return estimated;
+        }
+
+        public void reconcile(ChatResponse response) {
+            if (response != null) {
+                reconcile(response.getPromptEvalCount(), response.getEvalCount());
+            }
+        }
+
+        public void reconcile(GenerateResponse response) {
+            if (response != null) {
+                reconcile(response.getPromptEvalCount(), response.getEvalCount());
+            }
+        }
+
+        public void reconcile(EmbedResponse response) {
+            if (response != null) {
+                reconcile(response.getPromptEvalCount(), null);
+            }
+        }
+
+        /**
+         * Replaces the estimate with the actual counts. Ignored when both counts are missing, and
+         * applied at most once.
+         */
+        public void reconcile(Integer promptEvalCount, Integer evalCount) {
+            if (promptEvalCount == null && evalCount == null) {
+                return;
+            }
+            if (settled.compareAndSet(false, true)) {
+                long actual = (promptEvalCount != null ? promptEvalCount : 0)
+                        + (evalCount != null ? evalCount : 0);
+                bucket.adjust(actual - estimated);
+                consumed.add(actual - estimated);
+            }
+        }
+
+        /**
+         * Returns the whole charge, e.g. when the request was never sent.
+         */
+        public void cancel() {
+            if (settled.compareAndSet(false, true)) {
+                bucket.adjust(-estimated);
+                consumed.add(-estimated);
+            }
+        }
+    }
+}
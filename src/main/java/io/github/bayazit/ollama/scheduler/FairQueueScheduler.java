@@ -0,0 +1,279 @@
+package io.github.bayazit.ollama.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Client-side admission control for Ollama requests shared by several priority classes.
+ * <p>
+ * At most {@code maxConcurrency} requests run at once. When a slot frees up, queued work of the highest
+ * priority class wins, so background classes are deferred while interactive work is waiting; running
+ * requests are never cancelled. Among classes of the same priority, slots are shared by weighted fair
+ * queuing: every queued request gets a virtual finish tag advanced by {@code 1 / weight} and the smallest
+ * tag is dispatched first. A class's own {@code maxConcurrency} caps its running requests even when slots
+ * are free.
+ * <p>
+ * Blocking calls go through {@link #execute(String, Supplier)}; streaming calls can hold a permit for the
+ * lifetime of a {@code Flux} through {@link ReactiveScheduling}.
+ */
+public class FairQueueScheduler {
+
+    private final int maxConcurrency;
+    private final String defaultClass;
+    private final Map<String, ClassState> classes = new LinkedHashMap<>();
+
+    private int running;
+    private double virtualTime;
+
+    public FairQueueScheduler(int maxConcurrency, List<PriorityClass> priorityClasses) {
+        this(maxConcurrency, priorityClasses, null);
+    }
+
+    public FairQueueScheduler(int maxConcurrency, List<PriorityClass> priorityClasses, String defaultClass) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        if (priorityClasses.isEmpty()) {
+            throw new IllegalArgumentException("At least one priority class is required");
+        }
+        for (PriorityClass priorityClass : priorityClasses) {
+            if (priorityClass.getWeight() <= 0) {
+                throw new IllegalArgumentException("Weight of " + priorityClass.getName() + " must be positive");
+            }
+            classes.put(priorityClass.getName(), new ClassState(priorityClass));
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.defaultClass = defaultClass != null ? defaultClass : priorityClasses.get(0).getName();
+        if (!classes.containsKey(this.defaultClass)) {
+            throw new IllegalArgumentException("Unknown default priority class: " + this.defaultClass);
+        }
+    }
+
+    /**
+     * Runs {@code call} once a slot for {@code priorityClass} is available, blocking the caller while queued.
+     */
+    public <T> T execute(String priorityClass, Supplier<T> call) {
+        Permit permit = await(acquire(priorityClass));
+        try {
+            return call.get();
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * Queues a request for {@code priorityClass}, or the default class when {@code null}. The returned
+     * future completes with a permit that must be released when the request finishes; cancelling the
+     * future removes the request from the queue.
+     */
+    public CompletableFuture<Permit> acquire(String priorityClass) {
+        Waiter waiter;
+        List<Waiter> ready;
+        synchronized (this) {
+            ClassState state = state(priorityClass);
+            double start = Math.max(virtualTime, state.lastTag);
+            state.lastTag = start + 1.0 / state.config.getWeight();
+            waiter = new Waiter(state, state.lastTag);
+            state.queue.add(waiter);
+            ready = dispatch();
+        }
+        complete(ready);
+        waiter.future.whenComplete((permit, error) -> {
+            if (error != null) {
+                remove(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    public synchronized List<SchedulerStats> getStats() {
+        List<SchedulerStats> stats = new ArrayList<>(classes.size());
+        for (ClassState state : classes.values()) {
+            stats.add(SchedulerStats.builder()
+                    .priorityClass(state.config.getName())
+                    .queueDepth(state.queue.size())
+                    .running(state.running)
+                    .dispatched(state.dispatched)
+                    .totalWait(Duration.ofNanos(state.totalWaitNanos))
+                    .maxWait(Duration.ofNanos(state.maxWaitNanos))
+                    .build());
+        }
+        return stats;
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getQueued() {
+        return queued();
+    }
+
+    private ClassState state(String priorityClass) {
+        ClassState state = classes.get(priorityClass != null ? priorityClass : defaultClass);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown priority class: " + priorityClass);
+        }
+        return state;
+    }
+
+    /**
+     * Assigns free slots to queued waiters. Must be called while holding the monitor; the returned
+     * waiters are completed by the caller after releasing it, so that dependent stages never run under
+     * the scheduler lock.
+     */
+    private List<Waiter> dispatch() {
+        List<Waiter> ready = new ArrayList<>();
+        while (running < maxConcurrency) {
+            ClassState next = null;
+            for (ClassState state : classes.values()) {
+                while (!state.queue.isEmpty() && state.queue.peek().future.isDone()) {
+                    // Cancelled while queued
+                    state.queue.poll();
+                }
+                Waiter head = state.queue.peek();
+                if (head == null || !state.hasCapacity()) {
+                    continue;
+                }
+                if (next == null
+                        || state.config.getPriority() > next.config.getPriority()
+                        || (state.config.getPriority() == next.config.getPriority()
+                        && head.tag < next.queue.peek().tag)) {
+                    next = state;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.queue.poll();
+            virtualTime = Math.max(virtualTime, waiter.tag);
+            running++;
+            next.running++;
+            long waited = System.nanoTime() - waiter.enqueuedAt;
+            next.dispatched++;
+            next.totalWaitNanos += waited;
+            next.maxWaitNanos = Math.max(next.maxWaitNanos, waited);
+            ready.add(waiter);
+        }
+        if (running == 0 && queued() == 0) {
+            // Idle: restart virtual time so tags do not drift without bound
+            virtualTime = 0;
+            classes.values().forEach(state -> state.lastTag = 0);
+        }
+        return ready;
+    }
+
+    private int queued() {
+        int queued = 0;
+        for (ClassState state : classes.values()) {
+            queued += state.queue.size();
+        }
+        return queued;
+    }
+
+    private void complete(List<Waiter> ready) {
+        for (Waiter waiter : ready) {
+            Permit permit = new Permit(waiter.state);
+            if (!waiter.future.complete(permit)) {
+                // The caller cancelled while queued; hand the slot to the next waiter
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Drops a waiter cancelled while queued, so queue depths only count requests still waiting.
+     */
+    private synchronized void remove(Waiter waiter) {
+        waiter.state.queue.remove(waiter);
+    }
+
+    private void release(ClassState state) {
+        List<Waiter> ready;
+        synchronized (this) {
+            running--;
+            state.running--;
+            ready = dispatch();
+        }
+        complete(ready);
+    }
+
+    private static Permit await(CompletableFuture<Permit> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!future.cancel(false)) {
+                future.join().release();
+            }
+            throw new CancellationException("Interrupted while waiting for a scheduler slot");
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * A granted scheduler slot. Releasing it more than once has no effect.
+     */
+    public final class Permit {
+
+        private final ClassState state;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(ClassState state) {
+            this.state = state;
+        }
+
+        public String getPriorityClass() {
+            return state.config.getName();
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                FairQueueScheduler.this.release(state);
+            }
+        }
+    }
+
+    private static final class ClassState {
+
+        final PriorityClass config;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        double lastTag;
+        int running;
+        long dispatched;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        ClassState(PriorityClass config) {
+            this.config = config;
+        }
+
+        boolean hasCapacity() {
+            return config.getMaxConcurrency() <= 0 || running < config.getMaxConcurrency();
+        }
+    }
+
+    private static final class Waiter {
+
+        final ClassState state;
+        final double tag;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        Waiter(ClassState state, double tag) {
+            this.state = state;
+            this.tag = tag;
+        }
+    }
+}
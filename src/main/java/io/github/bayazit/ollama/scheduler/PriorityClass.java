@@ -0,0 +1,33 @@
+package io.github.bayazit.ollama.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriorityClass {
+
+    private String name;
+
+    /**
+     * Classes with a higher priority are always dispatched before queued work of lower classes.
+     */
+    @Builder.Default
+    private int priority = 0;
+
+    /**
+     * Share of dispatch slots relative to other classes with the same priority.
+     */
+    @Builder.Default
+    private double weight = 1.0;
+
+    /**
+     * Maximum number of concurrently running requests of this class, 0 for no class-specific limit.
+     */
+    @Builder.Default
+    private int maxConcurrency = 0;
+}
@@ -0,0 +1,28 @@
+package io.github.bayazit.ollama.scheduler;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Reactor support for {@link FairQueueScheduler}, kept separate so the scheduler itself does not
+ * require Reactor on the classpath.
+ */
+public final class ReactiveScheduling {
+
+    private ReactiveScheduling() {
+    }
+
+    /**
+     * Defers subscribing to the stream until a slot for {@code priorityClass} is granted and holds the
+     * slot until the stream completes, fails or is cancelled.
+     */
+    public static <T> Flux<T> schedule(FairQueueScheduler scheduler, String priorityClass,
+                                       Supplier<Flux<T>> stream) {
+        return Flux.usingWhen(
+                Mono.fromFuture(() -> scheduler.acquire(priorityClass)),
+                permit -> stream.get(),
+                permit -> Mono.fromRunnable(permit::release));
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.bayazit.ollama.scheduler;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time counters of a single priority class.
+ */
+@Value
+@Builder
+public class SchedulerStats {
+
+    String priorityClass;
+    int queueDepth;
+    int running;
+    long dispatched;
+    Duration totalWait;
+    Duration maxWait;
+
+    public Duration getAverageWait() {
+        return dispatched > 0 ? totalWait.dividedBy(dispatched) : Duration.ZERO;
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.bayazit.ollama.vector;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Exact nearest-neighbour search by scanning every vector. Fast enough for up to a few hundred thousand
+ * vectors and the reference for measuring the recall of {@link HnswIndex}.
+ */
+public class BruteForceIndex implements VectorIndex {
+
+    private final VectorStorage storage;
+    private final VectorSimilarity similarity;
+    private final ThreadLocal<float[]> scratch;
+
+    public BruteForceIndex(int dimensions, VectorSimilarity similarity) {
+        this(new VectorStorage(dimensions), similarity);
+    }
+
+    private BruteForceIndex(VectorStorage storage, VectorSimilarity similarity) {
+        this.storage = storage;
+        this.similarity = similarity;
+        this.scratch = ThreadLocal.withInitial(() -> new float[storage.dimensions()]);
+    }
+
+    /**
+     * Memory-maps a snapshot written by {@link #save(Path)}.
+     */
+    public static BruteForceIndex load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            VectorSimilarity similarity = Snapshots.readPrefix(channel, Snapshots.BRUTE_FORCE);
+            return new BruteForceIndex(VectorStorage.map(channel, Snapshots.PREFIX_BYTES), similarity);
+        }
+    }
+
+    @Override
+    public int add(float[] vector) {
+        return storage.add(similarity.prepare(vector));
+    }
+
+    @Override
+    public List<SearchResult> search(float[] query, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        storage.checkDimensions(query);
+        float[] prepared = similarity.prepare(query);
+        float[] vector = scratch.get();
+        ScoreHeap top = ScoreHeap.min(k + 1);
+        int size = storage.size();
+        for (int id = 0; id < size; id++) {
+            storage.get(id, vector);
+            top.offer(id, similarity.score(prepared, vector), k);
+        }
+        return top.drainDescending();
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    @Override
+    public int dimensions() {
+        return storage.dimensions();
+    }
+
+    @Override
+    public VectorSimilarity similarity() {
+        return similarity;
+    }
+
+    @Override
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = Snapshots.create(file, Snapshots.BRUTE_FORCE, similarity)) {
+            storage.write(channel);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.bayazit.ollama.vector;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Post-processing for {@code /api/embed} results: optionally L2-normalizes each embedding, then encodes
+ * it with a {@link Quantization}, so that the boxed {@code List<Double>} form of the response can be
+ * dropped right after the call.
+ */
+public class EmbeddingQuantizer {
+
+    private final Quantization quantization;
+    private final boolean normalize;
+
+    public EmbeddingQuantizer(Quantization quantization, boolean normalize) {
+        this.quantization = quantization;
+        this.normalize = normalize;
+    }
+
+    /**
+     * Calls {@link OllamaClient#embed} and quantizes the returned embeddings, in input order.
+     */
+    public List<QuantizedVector> embed(OllamaClient client, EmbedRequest request) {
+        return quantize(client.embed(request));
+    }
+
+    public List<QuantizedVector> quantize(EmbedResponse response) {
+        if (response == null || response.getEmbeddings() == null) {
+            return List.of();
+        }
+        List<QuantizedVector> vectors = new ArrayList<>(response.getEmbeddings().size());
+        for (List<Double> embedding : response.getEmbeddings()) {
+            vectors.add(quantize(VectorMath.toFloatArray(embedding)));
+        }
+        return vectors;
+    }
+
+    /**
+     * Quantizes {@code vector}, normalizing it in place first if configured.
+     */
+    public QuantizedVector quantize(float[] vector) {
+        if (normalize) {
+            VectorMath.normalize(vector);
+        }
+        return QuantizedVector.of(vector, quantization);
+    }
+
+    public Quantization getQuantization() {
+        return quantization;
+    }
+
+    public boolean isNormalize() {
+        return normalize;
+    }
+}
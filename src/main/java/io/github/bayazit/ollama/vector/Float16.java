@@ -0,0 +1,71 @@
+package io.github.bayazit.ollama.vector;
+
+/**
+ * Conversions between {@code float} and IEEE 754 binary16 bits, rounding to nearest even, for Java
+ * versions without {@code Float.floatToFloat16}.
+ */
+public final class Float16 {
+
+    private static final float[] DECODED = new float[1 << 16];
+
+    static {
+        for (int bits = 0; bits < DECODED.length; bits++) {
+            DECODED[bits] = decode((short) bits);
+        }
+    }
+
+    private Float16() {
+    }
+
+    public static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        short sign = (short) ((bits >>> 16) & 0x8000);
+        if (Float.isNaN(value)) {
+            return (short) (sign | 0x7e00);
+        }
+        float abs = Math.abs(value);
+        if (abs >= 0x1.ffep15f) {
+            // Rounds to infinity: at or above half an ulp past the largest half, 65504
+            return (short) (sign | 0x7c00);
+        }
+        if (abs <= 0x1.0p-25f) {
+            return sign;
+        }
+        int exponent = Math.getExponent(value);
+        int shift = 13;
+        int significand = bits & 0x007fffff;
+        if (exponent < -14) {
+            // Subnormal half: make the implicit bit explicit and shift it into place
+            shift += -14 - exponent;
+            exponent = -15;
+            significand |= 0x00800000;
+        }
+        int half = significand >> shift;
+        int lsb = significand & (1 << shift);
+        int round = significand & (1 << (shift - 1));
+        int sticky = significand & ((1 << (shift - 1)) - 1);
+        if (round != 0 && (lsb | sticky) != 0) {
+            half++;
+        }
+        // A carry out of the significand correctly bumps the exponent
+        return (short) (sign | (((exponent + 15) << 10) + half));
+    }
+
+    public static float toFloat(short bits) {
+        return DECODED[bits & 0xffff];
+    }
+
+    private static float decode(short half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = (half >>> 10) & 0x1f;
+        int significand = half & 0x03ff;
+        if (exponent == 0) {
+            float magnitude = 0x1.0p-24f * significand;
+            return sign == 0 ? magnitude : -magnitude;
+        }
+        if (exponent == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (significand << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (significand << 13));
+    }
+}
@@ -0,0 +1,390 @@
+package io.github.bayazit.ollama.vector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index based on Hierarchical Navigable Small World graphs
+ * (Malkov and Yashunin, 2016).
+ * <p>
+ * Vectors are kept in a {@link VectorStorage}; the graph holds up to {@code m} links per node on upper
+ * layers and {@code 2 * m} on the bottom layer, chosen with the neighbour-diversity heuristic.
+ * {@code efConstruction} trades build time for graph quality, and {@code efSearch} trades query
+ * latency for recall at search time. Searches run concurrently; inserts are serialized and exclude
+ * searches only while they run.
+ */
+public class HnswIndex implements VectorIndex {
+
+    /**
+     * Bounds applied when loading a snapshot, so that a corrupt graph fails before large arrays are
+     * allocated. Node levels are geometrically distributed and never come close to {@code MAX_LEVEL}.
+     */
+    private static final int MAX_M = 1 << 10;
+    private static final int MAX_LEVEL = 64;
+
+    private final VectorStorage storage;
+    private final VectorSimilarity similarity;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<SearchContext> contexts;
+    private volatile int efSearch;
+
+    /**
+     * Links per node and layer, each layer array holding the link count followed by the links.
+     */
+    private int[][][] links = new int[64][][];
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, VectorSimilarity similarity) {
+        this(dimensions, similarity, 16, 200, 64);
+    }
+
+    public HnswIndex(int dimensions, VectorSimilarity similarity, int m, int efConstruction, int efSearch) {
+        this(new VectorStorage(dimensions), similarity, m, efConstruction, efSearch);
+    }
+
+    private HnswIndex(VectorStorage storage, VectorSimilarity similarity, int m, int efConstruction, int efSearch) {
+        if (m < 2) {
+            throw new IllegalArgumentException("m must be at least 2");
+        }
+        this.storage = storage;
+        this.similarity = similarity;
+        this.m = m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.contexts = ThreadLocal.withInitial(() -> new SearchContext(storage.dimensions()));
+    }
+
+    /**
+     * Loads a snapshot written by {@link #save(Path)}. Vectors are memory-mapped, the graph is read
+     * into the heap.
+     */
+    public static HnswIndex load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            VectorSimilarity similarity = Snapshots.readPrefix(channel, Snapshots.HNSW);
+            VectorStorage storage = VectorStorage.map(channel, Snapshots.PREFIX_BYTES);
+            long graphStart = Snapshots.PREFIX_BYTES + storage.byteSize();
+            IntBuffer graph = channel.map(FileChannel.MapMode.READ_ONLY, graphStart, channel.size() - graphStart)
+                    .order(ByteOrder.BIG_ENDIAN)
+                    .asIntBuffer();
+            try {
+                int m = check(graph.get(), 2, MAX_M, "m");
+                HnswIndex index = new HnswIndex(storage, similarity, m, graph.get(), graph.get());
+                int count = storage.size();
+                index.entryPoint = check(graph.get(), count > 0 ? 0 : -1, count - 1, "entry point");
+                index.maxLevel = check(graph.get(), count > 0 ? 0 : -1, count > 0 ? MAX_LEVEL : -1, "max level");
+                check(graph.get(), count, count, "graph node count");
+                index.links = new int[Math.max(count, 64)][][];
+                for (int node = 0; node < count; node++) {
+                    int levels = check(graph.get(), 1, index.maxLevel + 1, "level count");
+                    int[][] nodeLinks = new int[levels][];
+                    for (int level = 0; level < levels; level++) {
+                        int[] layer = new int[index.maxLinks(level) + 1];
+                        layer[0] = check(graph.get(), 0, index.maxLinks(level), "link count");
+                        for (int i = 1; i <= layer[0]; i++) {
+                            layer[i] = check(graph.get(), 0, count - 1, "neighbour id");
+                        }
+                        nodeLinks[level] = layer;
+                    }
+                    index.links[node] = nodeLinks;
+                }
+                return index;
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated HNSW graph", e);
+            }
+        }
+    }
+
+    private static int check(int value, int min, int max, String what) throws IOException {
+        if (value < min || value > max) {
+            throw new IOException("Corrupt HNSW graph: " + what + " " + value + " outside [" + min + ", " + max + "]");
+        }
+        return value;
+    }
+
+    public void setEfSearch(int efSearch) {
+        this.efSearch = efSearch;
+    }
+
+    @Override
+    public int add(float[] vector) {
+        float[] prepared = similarity.prepare(vector);
+        lock.writeLock().lock();
+        try {
+            int id = storage.add(prepared);
+            insert(id, prepared);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchResult> search(float[] query, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        storage.checkDimensions(query);
+        float[] prepared = similarity.prepare(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            SearchContext ctx = contexts.get();
+            int current = entryPoint;
+            float currentScore = score(ctx, prepared, current);
+            for (int level = maxLevel; level > 0; level--) {
+                ScoreHeap nearest = searchLayer(ctx, prepared, current, currentScore, 1, level);
+                current = nearest.topId();
+                currentScore = nearest.topScore();
+            }
+            ScoreHeap results = searchLayer(ctx, prepared, current, currentScore, Math.max(efSearch, k), 0);
+            while (results.size() > k) {
+                results.pop();
+            }
+            return results.drainDescending();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    @Override
+    public int dimensions() {
+        return storage.dimensions();
+    }
+
+    @Override
+    public VectorSimilarity similarity() {
+        return similarity;
+    }
+
+    @Override
+    public void save(Path file) throws IOException {
+        lock.readLock().lock();
+        try (FileChannel channel = Snapshots.create(file, Snapshots.HNSW, similarity)) {
+            storage.write(channel);
+            OutputStream stream = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            int count = storage.size();
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(efSearch);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            out.writeInt(count);
+            for (int node = 0; node < count; node++) {
+                int[][] nodeLinks = links[node];
+                out.writeInt(nodeLinks.length);
+                for (int[] layer : nodeLinks) {
+                    out.writeInt(layer[0]);
+                    for (int i = 1; i <= layer[0]; i++) {
+                        out.writeInt(layer[i]);
+                    }
+                }
+            }
+            out.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(int id, float[] vector) {
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        if (id == links.length) {
+            links = Arrays.copyOf(links, links.length * 2);
+        }
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[maxLinks(l) + 1];
+        }
+        links[id] = nodeLinks;
+
+        if (entryPoint < 0) {
+            entryPoint = id;
+            maxLevel = level;
+            return;
+        }
+
+        SearchContext ctx = contexts.get();
+        int current = entryPoint;
+        float currentScore = score(ctx, vector, current);
+        for (int l = maxLevel; l > level; l--) {
+            ScoreHeap nearest = searchLayer(ctx, vector, current, currentScore, 1, l);
+            current = nearest.topId();
+            currentScore = nearest.topScore();
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            ScoreHeap candidates = searchLayer(ctx, vector, current, currentScore, efConstruction, l);
+            List<SearchResult> ordered = candidates.drainDescending();
+            current = ordered.get(0).getId();
+            currentScore = ordered.get(0).getScore();
+            int[] selected = selectNeighbors(ctx, ordered, m);
+            int[] layer = nodeLinks[l];
+            layer[0] = selected.length;
+            System.arraycopy(selected, 0, layer, 1, selected.length);
+            for (int neighbor : selected) {
+                link(ctx, neighbor, id, l);
+            }
+        }
+        if (level > maxLevel) {
+            entryPoint = id;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Adds {@code id} to the links of {@code node}, re-selecting its neighbours when the layer is full.
+     */
+    private void link(SearchContext ctx, int node, int id, int level) {
+        int[] layer = links[node][level];
+        int max = maxLinks(level);
+        if (layer[0] < max) {
+            layer[++layer[0]] = id;
+            return;
+        }
+        storage.get(node, ctx.base);
+        float[] base = ctx.base.clone();
+        ScoreHeap candidates = ScoreHeap.min(max + 1);
+        for (int i = 1; i <= layer[0]; i++) {
+            candidates.push(layer[i], score(ctx, base, layer[i]));
+        }
+        candidates.push(id, score(ctx, base, id));
+        int[] selected = selectNeighbors(ctx, candidates.drainDescending(), max);
+        layer[0] = selected.length;
+        System.arraycopy(selected, 0, layer, 1, selected.length);
+    }
+
+    /**
+     * Neighbour-diversity heuristic: a candidate is kept only if it is closer to the base node than to
+     * every neighbour already kept. Remaining slots are filled with the closest discarded candidates.
+     *
+     * @param ordered candidates sorted from closest to farthest
+     */
+    private int[] selectNeighbors(SearchContext ctx, List<SearchResult> ordered, int max) {
+        if (ordered.size() <= max) {
+            return ordered.stream().mapToInt(SearchResult::getId).toArray();
+        }
+        int[] selected = new int[max];
+        int count = 0;
+        boolean[] kept = new boolean[ordered.size()];
+        for (int i = 0; i < ordered.size() && count < max; i++) {
+            SearchResult candidate = ordered.get(i);
+            storage.get(candidate.getId(), ctx.base);
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (score(ctx, ctx.base, selected[j]) > candidate.getScore()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.getId();
+                kept[i] = true;
+            }
+        }
+        for (int i = 0; i < ordered.size() && count < max; i++) {
+            if (!kept[i]) {
+                selected[count++] = ordered.get(i).getId();
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Best-first search on one layer, returning a min-heap of the {@code ef} closest nodes found.
+     */
+    private ScoreHeap searchLayer(SearchContext ctx, float[] query, int entry, float entryScore, int ef, int level) {
+        int generation = ctx.nextGeneration(storage.size());
+        ScoreHeap candidates = ScoreHeap.max(ef * 2);
+        ScoreHeap results = ScoreHeap.min(ef + 1);
+        ctx.visited[entry] = generation;
+        candidates.push(entry, entryScore);
+        results.push(entry, entryScore);
+        while (!candidates.isEmpty()) {
+            if (results.size() >= ef && candidates.topScore() < results.topScore()) {
+                break;
+            }
+            int node = candidates.pop();
+            int[][] nodeLinks = links[node];
+            if (level >= nodeLinks.length) {
+                continue;
+            }
+            int[] layer = nodeLinks[level];
+            for (int i = 1; i <= layer[0]; i++) {
+                int neighbor = layer[i];
+                if (ctx.visited[neighbor] == generation) {
+                    continue;
+                }
+                ctx.visited[neighbor] = generation;
+                float score = score(ctx, query, neighbor);
+                if (results.size() < ef || score > results.topScore()) {
+                    candidates.push(neighbor, score);
+                    results.push(neighbor, score);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private float score(SearchContext ctx, float[] query, int id) {
+        storage.get(id, ctx.vector);
+        return similarity.score(query, ctx.vector);
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private static final class SearchContext {
+
+        final float[] vector;
+        final float[] base;
+        int[] visited = new int[0];
+        int generation;
+
+        SearchContext(int dimensions) {
+            this.vector = new float[dimensions];
+            this.base = new float[dimensions];
+        }
+
+        int nextGeneration(int size) {
+            if (visited.length < size) {
+                visited = new int[Math.max(size, visited.length * 2)];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.bayazit.ollama.vector;
+
+/**
+ * Storage encoding of a {@link QuantizedVector}.
+ */
+public enum Quantization {
+
+    /**
+     * Uncompressed IEEE 754 single precision, 4 bytes per dimension.
+     */
+    FLOAT32,
+
+    /**
+     * IEEE 754 half precision, 2 bytes per dimension. Lossless for practical purposes on normalized
+     * embeddings.
+     */
+    FLOAT16,
+
+    /**
+     * Symmetric scalar quantization to signed bytes with one scale per vector, 1 byte per dimension.
+     */
+    INT8,
+
+    /**
+     * Sign bit per dimension, 1 bit per dimension; the scale is the mean absolute component so that
+     * dot products keep their magnitude.
+     */
+    BINARY;
+
+    /**
+     * Bytes needed to encode the components of a vector with {@code dimensions} dimensions.
+     */
+    public int dataBytes(int dimensions) {
+        return switch (this) {
+            case FLOAT32 -> dimensions * Float.BYTES;
+            case FLOAT16 -> dimensions * 2;
+            case INT8 -> dimensions;
+            case BINARY -> (dimensions + 7) >>> 3;
+        };
+    }
+}
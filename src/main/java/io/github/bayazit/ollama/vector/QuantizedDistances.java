@@ -0,0 +1,123 @@
+package io.github.bayazit.ollama.vector;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Similarity functions evaluated directly on {@link QuantizedVector} data without decoding to float
+ * arrays. All functions approximate the dot product of the original vectors, so on L2-normalized
+ * vectors they approximate cosine similarity.
+ */
+public final class QuantizedDistances {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private QuantizedDistances() {
+    }
+
+    /**
+     * Dot product of two vectors with the same quantization and dimensions.
+     */
+    public static float dot(QuantizedVector a, QuantizedVector b) {
+        if (a.getQuantization() != b.getQuantization() || a.getDimensions() != b.getDimensions()) {
+            throw new IllegalArgumentException("Cannot compare " + a.getQuantization() + "[" + a.getDimensions()
+                    + "] with " + b.getQuantization() + "[" + b.getDimensions() + "]");
+        }
+        byte[] x = a.getData();
+        byte[] y = b.getData();
+        int dimensions = a.getDimensions();
+        return switch (a.getQuantization()) {
+            case FLOAT32 -> {
+                float sum = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    sum += (float) QuantizedVector.FLOATS.get(x, i * Float.BYTES)
+                            * (float) QuantizedVector.FLOATS.get(y, i * Float.BYTES);
+                }
+                yield sum;
+            }
+            case FLOAT16 -> {
+                float sum = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    sum += Float16.toFloat((short) QuantizedVector.SHORTS.get(x, i * 2))
+                            * Float16.toFloat((short) QuantizedVector.SHORTS.get(y, i * 2));
+                }
+                yield sum;
+            }
+            case INT8 -> int8Dot(x, y, dimensions) * a.getScale() * b.getScale();
+            case BINARY -> (dimensions - 2 * hamming(x, y, dimensions)) * a.getScale() * b.getScale();
+        };
+    }
+
+    /**
+     * Asymmetric dot product of a full-precision query with a quantized vector, which loses less
+     * accuracy than quantizing the query too.
+     */
+    public static float dot(float[] query, QuantizedVector vector) {
+        if (query.length != vector.getDimensions()) {
+            throw new IllegalArgumentException(
+                    "Expected " + vector.getDimensions() + " dimensions but got " + query.length);
+        }
+        byte[] data = vector.getData();
+        float sum = 0;
+        switch (vector.getQuantization()) {
+            case FLOAT32 -> {
+                for (int i = 0; i < query.length; i++) {
+                    sum += query[i] * (float) QuantizedVector.FLOATS.get(data, i * Float.BYTES);
+                }
+            }
+            case FLOAT16 -> {
+                for (int i = 0; i < query.length; i++) {
+                    sum += query[i] * Float16.toFloat((short) QuantizedVector.SHORTS.get(data, i * 2));
+                }
+            }
+            case INT8 -> {
+                for (int i = 0; i < query.length; i++) {
+                    sum += query[i] * data[i];
+                }
+                sum *= vector.getScale();
+            }
+            case BINARY -> {
+                // sum(+q for set bits, -q otherwise) = 2 * sum(q for set bits) - sum(q), without branches
+                float set = 0;
+                for (int i = 0; i < query.length; i++) {
+                    set += query[i] * ((data[i >>> 3] >>> (i & 7)) & 1);
+                    sum += query[i];
+                }
+                sum = (2 * set - sum) * vector.getScale();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Number of differing sign bits between two {@link Quantization#BINARY} vectors.
+     */
+    public static int hamming(QuantizedVector a, QuantizedVector b) {
+        if (a.getQuantization() != Quantization.BINARY || b.getQuantization() != Quantization.BINARY) {
+            throw new IllegalArgumentException("Hamming distance needs BINARY vectors");
+        }
+        return hamming(a.getData(), b.getData(), Math.min(a.getDimensions(), b.getDimensions()));
+    }
+
+    private static int int8Dot(byte[] x, byte[] y, int dimensions) {
+        int sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    private static int hamming(byte[] x, byte[] y, int dimensions) {
+        int bytes = (dimensions + 7) >>> 3;
+        int distance = 0;
+        int i = 0;
+        for (; i + Long.BYTES <= bytes; i += Long.BYTES) {
+            distance += Long.bitCount((long) LONGS.get(x, i) ^ (long) LONGS.get(y, i));
+        }
+        for (; i < bytes; i++) {
+            distance += Integer.bitCount((x[i] ^ y[i]) & 0xff);
+        }
+        return distance;
+    }
+}
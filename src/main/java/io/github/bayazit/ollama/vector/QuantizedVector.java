@@ -0,0 +1,99 @@
+package io.github.bayazit.ollama.vector;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * A vector in one of the compact {@link Quantization} encodings. Components are stored little-endian in
+ * {@code data}; {@code scale} multiplies the decoded components of {@link Quantization#INT8} and
+ * {@link Quantization#BINARY} vectors and is 1 otherwise.
+ * <p>
+ * The data array is not copied; treat it as read-only.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class QuantizedVector {
+
+    static final VarHandle SHORTS = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle FLOATS = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+
+    Quantization quantization;
+    int dimensions;
+    float scale;
+    byte[] data;
+
+    public static QuantizedVector of(float[] vector, Quantization quantization) {
+        int dimensions = vector.length;
+        byte[] data = new byte[quantization.dataBytes(dimensions)];
+        float scale = 1.0f;
+        switch (quantization) {
+            case FLOAT32 -> {
+                for (int i = 0; i < dimensions; i++) {
+                    FLOATS.set(data, i * Float.BYTES, vector[i]);
+                }
+            }
+            case FLOAT16 -> {
+                for (int i = 0; i < dimensions; i++) {
+                    SHORTS.set(data, i * 2, Float16.fromFloat(vector[i]));
+                }
+            }
+            case INT8 -> {
+                float max = 0;
+                for (float component : vector) {
+                    max = Math.max(max, Math.abs(component));
+                }
+                scale = max > 0 ? max / 127 : 1.0f;
+                float inverse = 1.0f / scale;
+                for (int i = 0; i < dimensions; i++) {
+                    data[i] = (byte) Math.round(vector[i] * inverse);
+                }
+            }
+            case BINARY -> {
+                float sum = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    sum += Math.abs(vector[i]);
+                    if (vector[i] > 0) {
+                        data[i >>> 3] |= (byte) (1 << (i & 7));
+                    }
+                }
+                scale = dimensions > 0 ? sum / dimensions : 1.0f;
+            }
+        }
+        return new QuantizedVector(quantization, dimensions, scale, data);
+    }
+
+    /**
+     * Reconstructs the (approximate) original components.
+     */
+    public float[] toFloatArray() {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = get(i);
+        }
+        return vector;
+    }
+
+    /**
+     * Returns the decoded component {@code i}, including the scale.
+     */
+    public float get(int i) {
+        return switch (quantization) {
+            case FLOAT32 -> (float) FLOATS.get(data, i * Float.BYTES);
+            case FLOAT16 -> Float16.toFloat((short) SHORTS.get(data, i * 2));
+            case INT8 -> data[i] * scale;
+            case BINARY -> (data[i >>> 3] & (1 << (i & 7))) != 0 ? scale : -scale;
+        };
+    }
+
+    /**
+     * Heap bytes taken by the encoded components, excluding object headers.
+     */
+    public int byteSize() {
+        return data.length;
+    }
+}
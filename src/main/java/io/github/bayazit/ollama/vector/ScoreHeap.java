@@ -0,0 +1,117 @@
+package io.github.bayazit.ollama.vector;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary heap of (id, score) pairs on primitive arrays, ordered with the lowest score on top
+ * ({@link #min}) or the highest score on top ({@link #max}).
+ */
+final class ScoreHeap {
+
+    private final boolean minOnTop;
+    private int[] ids;
+    private float[] scores;
+    private int size;
+
+    private ScoreHeap(boolean minOnTop, int capacity) {
+        this.minOnTop = minOnTop;
+        this.ids = new int[Math.max(capacity, 4)];
+        this.scores = new float[Math.max(capacity, 4)];
+    }
+
+    static ScoreHeap min(int capacity) {
+        return new ScoreHeap(true, capacity);
+    }
+
+    static ScoreHeap max(int capacity) {
+        return new ScoreHeap(false, capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int topId() {
+        return ids[0];
+    }
+
+    float topScore() {
+        return scores[0];
+    }
+
+    void push(int id, float score) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!above(score, scores[parent])) {
+                break;
+            }
+            ids[i] = ids[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        ids[i] = id;
+        scores[i] = score;
+    }
+
+    /**
+     * Keeps the {@code limit} highest scores of a min-heap: pushes, then evicts the lowest if over limit.
+     */
+    void offer(int id, float score, int limit) {
+        if (size < limit) {
+            push(id, score);
+        } else if (score > scores[0]) {
+            pop();
+            push(id, score);
+        }
+    }
+
+    int pop() {
+        int top = ids[0];
+        int lastId = ids[--size];
+        float lastScore = scores[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && above(scores[right], scores[child])) {
+                child = right;
+            }
+            if (!above(scores[child], lastScore)) {
+                break;
+            }
+            ids[i] = ids[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        ids[i] = lastId;
+        scores[i] = lastScore;
+        return top;
+    }
+
+    /**
+     * Empties a min-heap into a list ordered from highest to lowest score.
+     */
+    List<SearchResult> drainDescending() {
+        SearchResult[] results = new SearchResult[size];
+        for (int i = size - 1; i >= 0; i--) {
+            float score = scores[0];
+            results[i] = new SearchResult(pop(), score);
+        }
+        return Arrays.asList(results);
+    }
+
+    private boolean above(float a, float b) {
+        return minOnTop ? a < b : a > b;
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.bayazit.ollama.vector;
+
+import lombok.Value;
+
+@Value
+public class SearchResult {
+
+    int id;
+
+    /**
+     * Similarity to the query, higher is closer; see {@link VectorSimilarity}.
+     */
+    float score;
+}
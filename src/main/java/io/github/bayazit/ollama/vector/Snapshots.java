@@ -0,0 +1,56 @@
+package io.github.bayazit.ollama.vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Common prefix of index snapshot files: the index kind and its similarity, followed by the
+ * {@link VectorStorage} section and any index-specific data.
+ */
+final class Snapshots {
+
+    static final int PREFIX_BYTES = 8;
+    static final int BRUTE_FORCE = 1;
+    static final int HNSW = 2;
+
+    private Snapshots() {
+    }
+
+    static FileChannel create(Path file, int kind, VectorSimilarity similarity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer prefix = ByteBuffer.allocate(PREFIX_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(kind).putInt(similarity.ordinal()).flip();
+        while (prefix.hasRemaining()) {
+            channel.write(prefix);
+        }
+        return channel;
+    }
+
+    /**
+     * Checks the snapshot kind and returns its similarity.
+     */
+    static VectorSimilarity readPrefix(FileChannel channel, int expectedKind) throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate(PREFIX_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (prefix.hasRemaining()) {
+            if (channel.read(prefix, prefix.position()) < 0) {
+                throw new IOException("Truncated vector snapshot");
+            }
+        }
+        prefix.flip();
+        int kind = prefix.getInt();
+        if (kind != expectedKind) {
+            throw new IOException("Snapshot contains index kind " + kind + ", expected " + expectedKind);
+        }
+        int similarity = prefix.getInt();
+        VectorSimilarity[] similarities = VectorSimilarity.values();
+        if (similarity < 0 || similarity >= similarities.length) {
+            throw new IOException("Unknown vector similarity " + similarity);
+        }
+        return similarities[similarity];
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.bayazit.ollama.vector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary format for {@link QuantizedVector}s.
+ * <p>
+ * A record is one byte with the quantization ordinal, the dimension count as an unsigned LEB128 varint,
+ * the scale as a little-endian float for {@link Quantization#INT8} and {@link Quantization#BINARY}, and
+ * then the raw component bytes. A 1024-dimension int8 vector takes 1031 bytes. A stream written by
+ * {@link #writeAll} starts with a 4-byte magic and a format version byte, followed by records until the
+ * end of the stream.
+ */
+public final class VectorCodec {
+
+    private static final byte[] MAGIC = {'O', 'Q', 'V', 'C'};
+    private static final int VERSION = 1;
+
+    /**
+     * Upper bound on the dimension count accepted when reading, far above any embedding model, so a
+     * corrupt record fails before a large buffer is allocated.
+     */
+    static final int MAX_DIMENSIONS = 1 << 16;
+
+    private VectorCodec() {
+    }
+
+    public static byte[] encode(QuantizedVector vector) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(vector.getData().length + 10);
+        try {
+            write(out, vector);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static QuantizedVector decode(byte[] bytes) {
+        try {
+            QuantizedVector vector = read(new ByteArrayInputStream(bytes));
+            if (vector == null) {
+                throw new IllegalArgumentException("Empty vector record");
+            }
+            return vector;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed vector record", e);
+        }
+    }
+
+    public static void write(OutputStream out, QuantizedVector vector) throws IOException {
+        Quantization quantization = vector.getQuantization();
+        out.write(quantization.ordinal());
+        int dimensions = vector.getDimensions();
+        while ((dimensions & ~0x7f) != 0) {
+            out.write((dimensions & 0x7f) | 0x80);
+            dimensions >>>= 7;
+        }
+        out.write(dimensions);
+        if (hasScale(quantization)) {
+            int bits = Float.floatToIntBits(vector.getScale());
+            out.write(bits);
+            out.write(bits >>> 8);
+            out.write(bits >>> 16);
+            out.write(bits >>> 24);
+        }
+        out.write(vector.getData());
+    }
+
+    /**
+     * Reads one record, or returns {@code null} at the end of the stream.
+     */
+    public static QuantizedVector read(InputStream in) throws IOException {
+        int ordinal = in.read();
+        if (ordinal < 0) {
+            return null;
+        }
+        if (ordinal >= Quantization.values().length) {
+            throw new IOException("Unknown quantization " + ordinal);
+        }
+        Quantization quantization = Quantization.values()[ordinal];
+        int dimensions = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte(in);
+            if (shift > 28) {
+                throw new IOException("Dimension count overflows");
+            }
+            dimensions |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (dimensions < 0 || dimensions > MAX_DIMENSIONS) {
+            throw new IOException("Implausible dimension count " + Integer.toUnsignedString(dimensions));
+        }
+        float scale = 1.0f;
+        if (hasScale(quantization)) {
+            scale = Float.intBitsToFloat(readByte(in) | readByte(in) << 8 | readByte(in) << 16 | readByte(in) << 24);
+        }
+        byte[] data = in.readNBytes(quantization.dataBytes(dimensions));
+        if (data.length != quantization.dataBytes(dimensions)) {
+            throw new EOFException("Truncated vector record");
+        }
+        return new QuantizedVector(quantization, dimensions, scale, data);
+    }
+
+    public static void writeAll(OutputStream out, Iterable<QuantizedVector> vectors) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        for (QuantizedVector vector : vectors) {
+            write(out, vector);
+        }
+        out.flush();
+    }
+
+    public static List<QuantizedVector> readAll(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(MAGIC.length + 1);
+        if (header.length != MAGIC.length + 1 || header[0] != MAGIC[0] || header[1] != MAGIC[1]
+                || header[2] != MAGIC[2] || header[3] != MAGIC[3]) {
+            throw new IOException("Not a quantized vector stream");
+        }
+        if (header[4] != VERSION) {
+            throw new IOException("Unsupported quantized vector stream version " + header[4]);
+        }
+        List<QuantizedVector> vectors = new ArrayList<>();
+        QuantizedVector vector;
+        while ((vector = read(in)) != null) {
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private static boolean hasScale(Quantization quantization) {
+        return quantization == Quantization.INT8 || quantization == Quantization.BINARY;
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated vector record");
+        }
+        return b;
+    }
+}
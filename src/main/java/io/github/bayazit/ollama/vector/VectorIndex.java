@@ -0,0 +1,31 @@
+package io.github.bayazit.ollama.vector;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface VectorIndex {
+
+    /**
+     * Adds a vector and returns its id. Ids are assigned sequentially from 0.
+     */
+    int add(float[] vector);
+
+    /**
+     * Returns up to {@code k} closest vectors, closest first.
+     *
+     * @throws IllegalArgumentException if {@code k} is not positive
+     */
+    List<SearchResult> search(float[] query, int k);
+
+    int size();
+
+    int dimensions();
+
+    VectorSimilarity similarity();
+
+    /**
+     * Writes a snapshot that can be memory-mapped back with the implementation's {@code load} method.
+     */
+    void save(Path file) throws IOException;
+}
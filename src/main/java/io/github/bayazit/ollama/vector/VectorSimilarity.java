@@ -0,0 +1,27 @@
+package io.github.bayazit.ollama.vector;
+
+/**
+ * Similarity function of an index. Scores are always "higher is closer".
+ */
+public enum VectorSimilarity {
+
+    /**
+     * Cosine similarity; vectors are normalized on insert so scoring is a dot product.
+     */
+    COSINE,
+
+    DOT_PRODUCT,
+
+    /**
+     * Negated squared Euclidean distance.
+     */
+    EUCLIDEAN;
+
+    float[] prepare(float[] vector) {
+        return this == COSINE ? VectorMath.normalize(vector.clone()) : vector;
+    }
+
+    float score(float[] query, float[] vector) {
+        return this == EUCLIDEAN ? -VectorMath.squaredDistance(query, vector) : VectorMath.dot(query, vector);
+    }
+}
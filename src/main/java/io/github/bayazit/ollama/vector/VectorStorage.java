@@ -0,0 +1,169 @@
+package io.github.bayazit.ollama.vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Append-only store of fixed-dimension float vectors in contiguous off-heap segments.
+ * <p>
+ * Vectors live in direct buffers of up to {@code vectorsPerSegment} vectors each, so a million
+ * 1024-dimension vectors take 4 GB outside the Java heap instead of millions of boxed arrays. Full
+ * segments of a loaded snapshot are read-only memory mappings of the snapshot file; only the last,
+ * partial segment is copied so that appends never write to the file. Reads are lock-free; appends are
+ * serialized.
+ */
+public final class VectorStorage {
+
+    static final int MAGIC = 0x4F564543;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final int dimensions;
+    private final int vectorsPerSegment;
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private volatile FloatBuffer[] views = new FloatBuffer[0];
+    private volatile int size;
+
+    public VectorStorage(int dimensions) {
+        this(dimensions, (int) Math.min(1 << 16, MAX_SEGMENT_BYTES / (4L * dimensions)));
+    }
+
+    VectorStorage(int dimensions, int vectorsPerSegment) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+        this.vectorsPerSegment = Math.max(1, vectorsPerSegment);
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public synchronized int add(float[] vector) {
+        checkDimensions(vector);
+        int id = size;
+        int segment = id / vectorsPerSegment;
+        if (segment == segments.length) {
+            grow(ByteBuffer.allocateDirect(vectorsPerSegment * dimensions * Float.BYTES));
+        }
+        views[segment].put((id % vectorsPerSegment) * dimensions, vector);
+        size = id + 1;
+        return id;
+    }
+
+    /**
+     * Rejects vectors and queries whose length differs from {@link #dimensions()}.
+     */
+    void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+    }
+
+    /**
+     * Copies vector {@code id} into {@code target}, which must have {@link #dimensions()} elements.
+     */
+    public void get(int id, float[] target) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No vector " + id + ", size " + size);
+        }
+        views[id / vectorsPerSegment].get((id % vectorsPerSegment) * dimensions, target, 0, dimensions);
+    }
+
+    /**
+     * Writes the header and all vectors at the channel's position.
+     */
+    void write(FileChannel channel) throws IOException {
+        int count = size;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(count).flip();
+        writeFully(channel, header);
+        ByteBuffer[] current = segments;
+        for (int segment = 0; segment * vectorsPerSegment < count; segment++) {
+            int vectors = Math.min(vectorsPerSegment, count - segment * vectorsPerSegment);
+            ByteBuffer bytes = current[segment].duplicate().clear().limit(vectors * dimensions * Float.BYTES);
+            writeFully(channel, bytes);
+        }
+    }
+
+    /**
+     * Maps a storage section written by {@link #write} starting at {@code position}, without copying it.
+     */
+    static VectorStorage map(FileChannel channel, long position) throws IOException {
+        long available = channel.size() - position;
+        if (available < HEADER_BYTES) {
+            throw new IOException("Truncated vector snapshot");
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, position, HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a vector snapshot");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported vector snapshot version " + version);
+        }
+        int dimensions = header.getInt();
+        int count = header.getInt();
+        if (dimensions <= 0 || dimensions > VectorCodec.MAX_DIMENSIONS) {
+            throw new IOException("Implausible dimension count " + Integer.toUnsignedString(dimensions));
+        }
+        if (count < 0 || (long) count * dimensions * Float.BYTES > available - HEADER_BYTES) {
+            throw new IOException("Snapshot of " + available + " bytes cannot hold "
+                    + Integer.toUnsignedString(count) + " vectors of " + dimensions + " dimensions");
+        }
+        VectorStorage storage = new VectorStorage(dimensions);
+        long offset = position + HEADER_BYTES;
+        long segmentBytes = (long) storage.vectorsPerSegment * dimensions * Float.BYTES;
+        for (int loaded = 0; loaded < count; loaded += storage.vectorsPerSegment) {
+            int vectors = Math.min(storage.vectorsPerSegment, count - loaded);
+            long bytes = (long) vectors * dimensions * Float.BYTES;
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+            if (vectors < storage.vectorsPerSegment) {
+                // Last, partial segment: leave room for appends without another copy
+                ByteBuffer copy = ByteBuffer.allocateDirect((int) segmentBytes);
+                copy.put(mapped).clear();
+                mapped = copy;
+            }
+            storage.grow(mapped);
+            offset += bytes;
+        }
+        storage.size = count;
+        return storage;
+    }
+
+    /**
+     * Size in bytes of the section {@link #write} produces.
+     */
+    long byteSize() {
+        return HEADER_BYTES + (long) size * dimensions * Float.BYTES;
+    }
+
+    private void grow(ByteBuffer segment) {
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer[] nextSegments = Arrays.copyOf(segments, segments.length + 1);
+        FloatBuffer[] nextViews = Arrays.copyOf(views, views.length + 1);
+        nextSegments[segments.length] = segment;
+        nextViews[views.length] = segment.asFloatBuffer();
+        views = nextViews;
+        segments = nextSegments;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
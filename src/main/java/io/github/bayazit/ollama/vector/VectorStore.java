@@ -0,0 +1,149 @@
+package io.github.bayazit.ollama.vector;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import lombok.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process vector store fed by {@code /api/embed}: texts are embedded with one model and added to a
+ * {@link VectorIndex}, and {@link #similaritySearch(String, int)} embeds the query and searches in one
+ * call.
+ * <p>
+ * Texts are kept by the id the index assigned, so a store can wrap an index loaded from a snapshot and
+ * keep adding to it. {@link #save(Path, Path)} writes the texts next to the index snapshot and
+ * {@link #loadTexts(Path)} reads them back.
+ */
+public class VectorStore {
+
+    private final OllamaClient client;
+    private final String model;
+    private final VectorIndex index;
+    private final int batchSize;
+    private final Map<Integer, String> texts = new ConcurrentHashMap<>();
+
+    public VectorStore(OllamaClient client, String model, VectorIndex index) {
+        this(client, model, index, 64);
+    }
+
+    public VectorStore(OllamaClient client, String model, VectorIndex index, int batchSize) {
+        this.client = client;
+        this.model = model;
+        this.index = index;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Embeds the texts in batches of {@code batchSize} and returns their ids, in order.
+     */
+    public List<Integer> addAll(List<String> inputs) {
+        List<Integer> ids = new ArrayList<>(inputs.size());
+        for (int from = 0; from < inputs.size(); from += batchSize) {
+            List<String> batch = inputs.subList(from, Math.min(inputs.size(), from + batchSize));
+            List<float[]> vectors = embed(batch);
+            synchronized (this) {
+                for (int i = 0; i < vectors.size(); i++) {
+                    int id = index.add(vectors.get(i));
+                    texts.put(id, batch.get(i));
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    public int add(String text) {
+        return addAll(List.of(text)).get(0);
+    }
+
+    public List<Match> similaritySearch(String query, int k) {
+        List<SearchResult> results = index.search(embed(List.of(query)).get(0), k);
+        List<Match> matches = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            matches.add(new Match(result.getId(), result.getScore(), texts.get(result.getId())));
+        }
+        return matches;
+    }
+
+    public VectorIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Writes the index snapshot to {@code indexFile} and the texts by id to {@code textsFile}.
+     */
+    public synchronized void save(Path indexFile, Path textsFile) throws IOException {
+        index.save(indexFile);
+        Map<Integer, String> sorted = new TreeMap<>(texts);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(textsFile)))) {
+            out.writeInt(sorted.size());
+            for (Map.Entry<Integer, String> entry : sorted.entrySet()) {
+                byte[] text = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(entry.getKey());
+                out.writeInt(text.length);
+                out.write(text);
+            }
+        }
+    }
+
+    /**
+     * Restores texts written by {@link #save(Path, Path)} for the vectors of a loaded index snapshot.
+     */
+    public void loadTexts(Path textsFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(textsFile)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                int length = in.readInt();
+                if (id < 0 || id >= index.size() || length < 0) {
+                    throw new IOException("Invalid text entry for id " + id + " in " + textsFile);
+                }
+                byte[] text = in.readNBytes(length);
+                if (text.length != length) {
+                    throw new EOFException("Truncated texts file " + textsFile);
+                }
+                texts.put(id, new String(text, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private List<float[]> embed(List<String> batch) {
+        EmbedResponse response = client.embed(EmbedRequest.builder().model(model).input(batch).build());
+        if (response == null || response.getEmbeddings() == null
+                || response.getEmbeddings().size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " embeddings from model " + model);
+        }
+        List<float[]> vectors = new ArrayList<>(batch.size());
+        for (List<Double> embedding : response.getEmbeddings()) {
+            vectors.add(VectorMath.toFloatArray(embedding));
+        }
+        return vectors;
+    }
+
+    @Value
+    public static class Match {
+
+        int id;
+        float score;
+
+        /**
+         * The embedded text, or {@code null} for vectors loaded from a snapshot without their texts.
+         */
+        String text;
+    }
+}
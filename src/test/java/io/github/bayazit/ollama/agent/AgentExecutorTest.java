@@ -0,0 +1,153 @@
+package io.github.bayazit.ollama.agent;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.*;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AgentExecutorTest {
+
+    private static final Map<String, Object> CITY = Map.of("type", "object",
+            "properties", Map.of("city", Map.of("type", "string")));
+
+    @Test
+    void run_shouldExecuteToolCallsInParallelAndFeedResultsBack() {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.chat(any()))
+                .thenReturn(assistant("", call("time", Map.of("city", "Paris")), call("date", Map.of("city", "Rome"))))
+                .thenReturn(assistant("18C at noon"));
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ToolHandler awaitBoth = arguments -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS) ? "ok " + arguments.get("city") : "sequential";
+        };
+        List<String> events = new ArrayList<>();
+        AgentExecutor agent = AgentExecutor.builder()
+                .client(client)
+                .tool(AgentTool.of("weather", "Current weather", CITY, arguments -> "18C"))
+                .tool(AgentTool.of("time", "Local time", CITY, awaitBoth))
+                .tool(AgentTool.of("date", "Local date", CITY, awaitBoth))
+                .listener(new AgentListener() {
+                    @Override
+                    public void onContent(int step, String content) {
+                        events.add(step + ":content:" + content);
+                    }
+
+                    @Override
+                    public void onToolResult(int step, ToolCall call, Message result) {
+                        events.add(step + ":tool:" + result.getToolName() + "=" + result.getContent());
+                    }
+                })
+                .build();
+
+        AgentResult result = agent.run(ChatRequest.builder()
+                .model("llama3.2")
+                .messages(List.of(Message.builder().role(Role.USER).content("Weather in Paris?").build()))
+                .build());
+
+        assertThat(result.getStopReason()).isEqualTo(AgentResult.StopReason.COMPLETED);
+        assertThat(result.getSteps()).isEqualTo(2);
+        assertThat(result.getToolCalls()).isEqualTo(2);
+        assertThat(result.getFinalMessage().getContent()).isEqualTo("18C at noon");
+        assertThat(events).containsExactly("1:tool:time=ok Paris", "1:tool:date=ok Rome", "2:content:18C at noon");
+
+        ArgumentCaptor<ChatRequest> requests = ArgumentCaptor.forClass(ChatRequest.class);
+        verify(client, times(2)).chat(requests.capture());
+        assertThat(requests.getAllValues().get(0).getTools()).extracting(tool -> tool.getFunction().getName())
+                .containsExactly("weather", "time", "date");
+        assertThat(requests.getAllValues().get(1).getMessages()).extracting(Message::getRole)
+                .containsExactly(Role.USER, Role.ASSISTANT, Role.TOOL, Role.TOOL);
+        assertThat(result.getMessages()).hasSize(5);
+    }
+
+    @Test
+    void run_shouldReturnToolErrorsToTheModel() {
+        ChatCall chat = mock(ChatCall.class);
+        when(chat.chat(any(), any()))
+                .thenReturn(assistant("", call("fails", Map.of()), call("missing", Map.of())))
+                .thenReturn(assistant("sorry"));
+        AgentExecutor agent = AgentExecutor.builder()
+                .chat(chat)
+                .tool(AgentTool.of("fails", "Always fails", CITY, arguments -> {
+                    throw new IllegalStateException("service down");
+                }))
+                .build();
+
+        AgentResult result = agent.run(ChatRequest.builder().model("m").messages(List.of()).build());
+
+        assertThat(result.getMessages()).filteredOn(message -> message.getRole() == Role.TOOL)
+                .extracting(Message::getContent)
+                .containsExactly("Error: service down", "Error: unknown tool 'missing'");
+        assertThat(result.getStopReason()).isEqualTo(AgentResult.StopReason.COMPLETED);
+    }
+
+    @Test
+    void run_shouldStopAtStepAndTimeBudgets() {
+        ChatCall chat = mock(ChatCall.class);
+        when(chat.chat(any(), any())).thenAnswer(invocation -> assistant("", call("slow", Map.of())));
+        AgentExecutor.AgentExecutorBuilder builder = AgentExecutor.builder()
+                .chat(chat)
+                .tool(AgentTool.of("slow", "Sleeps", CITY, arguments -> {
+                    Thread.sleep(arguments.isEmpty() ? 5_000 : 0);
+                    return "done";
+                }));
+
+        long start = System.nanoTime();
+        AgentResult timedOut = builder.timeout(Duration.ofMillis(200)).build()
+                .run(ChatRequest.builder().model("m").messages(List.of()).build());
+        assertThat(timedOut.getStopReason()).isEqualTo(AgentResult.StopReason.TIMEOUT);
+        assertThat(timedOut.getSteps()).isEqualTo(1);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(4));
+
+        when(chat.chat(any(), any())).thenAnswer(invocation -> assistant("", call("slow", Map.of("fast", true))));
+        AgentResult exhausted = builder.timeout(null).maxSteps(3).build()
+                .run(ChatRequest.builder().model("m").messages(List.of()).build());
+        assertThat(exhausted.getStopReason()).isEqualTo(AgentResult.StopReason.MAX_STEPS);
+        assertThat(exhausted.getSteps()).isEqualTo(3);
+        assertThat(exhausted.getToolCalls()).isEqualTo(3);
+    }
+
+    @Test
+    void merge_shouldConcatenateStreamedContentAndCollectToolCalls() {
+        ChatResponse merged = ReactiveAgent.merge(List.of(
+                ChatResponse.builder().message(Message.builder().role(Role.ASSISTANT).content("Let me ").build()).build(),
+                ChatResponse.builder().message(Message.builder().role(Role.ASSISTANT).content("check.")
+                        .toolCalls(List.of(call("weather", Map.of()))).build()).build(),
+                ChatResponse.builder().message(Message.builder().role(Role.ASSISTANT).content("").build())
+                        .done(true).promptEvalCount(12).evalCount(4).build()));
+
+        assertThat(merged.getMessage().getContent()).isEqualTo("Let me check.");
+        assertThat(merged.getMessage().getToolCalls()).hasSize(1);
+        assertThat(merged.getPromptEvalCount()).isEqualTo(12);
+        assertThat(merged.getDone()).isTrue();
+    }
+
+    private static ChatResponse assistant(String content, ToolCall... calls) {
+        return ChatResponse.builder()
+                .message(Message.builder()
+                        .role(Role.ASSISTANT)
+                        .content(content)
+                        .toolCalls(calls.length == 0 ? null : List.of(calls))
+                        .build())
+                .promptEvalCount(10)
+                .evalCount(5)
+                .build();
+    }
+
+    private static ToolCall call(String name, Map<String, Object> arguments) {
+        return ToolCall.builder()
+                .function(ToolCallFunction.builder().name(name).arguments(arguments).build())
+                .build();
+    }
+}
@@ -1,7 +1,22 @@
 package io.github.bayazit.ollama.autoconfigure;
 
+import io.github.bayazit.ollama.actuate.OllamaEndpoint;
+import io.github.bayazit.ollama.actuate.OllamaHealthIndicator;
+import io.github.bayazit.ollama.agent.AgentExecutor;
+import io.github.bayazit.ollama.agent.AgentTool;
+import io.github.bayazit.ollama.client.NodeMonitor;
 import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.client.OllamaNodes;
 import io.github.bayazit.ollama.client.OllamaStreamingClient;
+import io.github.bayazit.ollama.client.SlowRequestLog;
+import io.github.bayazit.ollama.image.ImageAttachments;
+import io.github.bayazit.ollama.prefix.PrefixRouter;
+import io.github.bayazit.ollama.prefix.SharedPrefix;
+import io.github.bayazit.ollama.ratelimit.TokenRateLimiter;
+import io.github.bayazit.ollama.scheduler.FairQueueScheduler;
+import io.github.bayazit.ollama.scheduler.SchedulerStats;
+import io.github.bayazit.ollama.vector.EmbeddingQuantizer;
+import io.github.bayazit.ollama.vector.Quantization;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
@@ -11,8 +26,10 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.mock;
 
 class OllamaAutoConfigurationTest {
@@ -31,6 +48,14 @@ class OllamaAutoConfigurationTest {
         });
     }
 
+    @Test
+    void shouldCreateWebClientOnlyOnFirstStreamingUse() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(OllamaStreamingClient.class);
+            assertThat(context.getBeanFactory().containsSingleton("ollamaWebClient")).isFalse();
+        });
+    }
+
     @Test
     void shouldApplyDefaultProperties() {
         contextRunner.run(context -> {
@@ -58,6 +83,152 @@ class OllamaAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldNotCreateSchedulerByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(FairQueueScheduler.class));
+    }
+
+    @Test
+    void shouldCreateSchedulerWithConfiguredClasses() {
+        contextRunner
+                .withPropertyValues(
+                        "ollama.scheduler.enabled=true",
+                        "ollama.scheduler.max-concurrency=2",
+                        "ollama.scheduler.classes.interactive.priority=10",
+                        "ollama.scheduler.classes.batch.weight=0.5"
+                )
+                .run(context -> {
+                    FairQueueScheduler scheduler = context.getBean(FairQueueScheduler.class);
+                    assertThat(scheduler.getStats())
+                            .extracting(SchedulerStats::getPriorityClass)
+                            .containsExactly("interactive", "batch", "default");
+                    scheduler.acquire("interactive").join().release();
+                });
+    }
+
+    @Test
+    void shouldCreateTokenRateLimiterWithPerKeyLimits() {
+        contextRunner
+                .withPropertyValues(
+                        "ollama.rate-limit.enabled=true",
+                        "ollama.rate-limit.burst=100",
+                        "ollama.rate-limit.limits.premium.tokens-per-second=50",
+                        "ollama.rate-limit.limits.premium.burst=500"
+                )
+                .run(context -> {
+                    TokenRateLimiter limiter = context.getBean(TokenRateLimiter.class);
+                    assertThat(limiter.getAvailableTokens("anonymous")).isEqualTo(100);
+                    assertThat(limiter.getAvailableTokens("premium")).isEqualTo(500);
+                });
+    }
+
+    @Test
+    void shouldCreateEmbeddingQuantizerOnlyWhenQuantizationIsSet() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(EmbeddingQuantizer.class));
+        contextRunner
+                .withPropertyValues("ollama.embedding.quantization=int8", "ollama.embedding.normalize=false")
+                .run(context -> {
+                    EmbeddingQuantizer quantizer = context.getBean(EmbeddingQuantizer.class);
+                    assertThat(quantizer.getQuantization()).isEqualTo(Quantization.INT8);
+                    assertThat(quantizer.isNormalize()).isFalse();
+                });
+    }
+
+    @Test
+    void shouldConfigureImageProcessingAndCache() {
+        contextRunner.run(context -> {
+            ImageAttachments images = context.getBean(ImageAttachments.class);
+            assertThat(images.getProcessor()).isNull();
+            assertThat(images.getCache()).isNull();
+        });
+        contextRunner
+                .withPropertyValues("ollama.images.max-dimension=1024", "ollama.images.cache-size=16MB")
+                .run(context -> {
+                    ImageAttachments images = context.getBean(ImageAttachments.class);
+                    assertThat(images.getProcessor()).isNotNull();
+                    assertThat(images.getCache()).isNotNull();
+                });
+    }
+
+    @Test
+    void shouldCreatePrefixRouterWithDeclaredPrefixesAndNodes() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(PrefixRouter.class));
+        contextRunner
+                .withPropertyValues(
+                        "ollama.prefix.enabled=true",
+                        "ollama.nodes[0]=http://gpu-2:11434",
+                        "ollama.prefix.declared.support.system=You are a support agent.",
+                        "ollama.prefix.declared.support.prompt=Examples:")
+                .run(context -> {
+                    PrefixRouter router = context.getBean(PrefixRouter.class);
+                    assertThat(router.getRegistry().getPrefixes())
+                            .extracting(SharedPrefix::getId, SharedPrefix::getModel, SharedPrefix::getPrompt)
+                            .containsExactly(tuple("support", null, "Examples:"));
+                    assertThat(router.stats().getPrefixes()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void shouldCreateAgentExecutorOnlyWithToolBeans() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(AgentExecutor.class));
+        contextRunner
+                .withUserConfiguration(ToolConfig.class)
+                .withPropertyValues("ollama.agent.max-steps=3", "ollama.agent.timeout=30s")
+                .run(context -> assertThat(context).hasSingleBean(AgentExecutor.class));
+    }
+
+    @Test
+    void shouldExposeSlowRequestLogThroughOllamaEndpoint() {
+        contextRunner
+                .withPropertyValues("management.endpoints.web.exposure.include=ollama",
+                        "ollama.slow-requests.threshold=2s", "ollama.slow-requests.sample-rate=0.5")
+                .run(context -> {
+                    SlowRequestLog log = context.getBean(SlowRequestLog.class);
+                    assertThat(log.getThreshold()).isEqualTo(Duration.ofSeconds(2));
+                    assertThat(log.getSampleRate()).isEqualTo(0.5);
+                    assertThat(context.getBean(OllamaEndpoint.class).ollama()).containsKey("slowRequests");
+                });
+        contextRunner
+                .withPropertyValues("ollama.slow-requests.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(SlowRequestLog.class));
+    }
+
+    @Test
+    void shouldMonitorAllNodesForHealthAndEndpoint() {
+        contextRunner
+                .withPropertyValues("management.endpoints.web.exposure.include=ollama",
+                        "ollama.nodes[0]=http://gpu-2:11434", "ollama.monitor.interval=1m",
+                        "ollama.monitor.timeout=2s", "ollama.monitor.stale-after=5")
+                .run(context -> {
+                    assertThat(context.getBean(OllamaNodes.class).getClients())
+                            .containsOnlyKeys("http://localhost:11434", "http://gpu-2:11434")
+                            .containsEntry("http://localhost:11434", context.getBean(OllamaClient.class));
+                    NodeMonitor monitor = context.getBean(NodeMonitor.class);
+                    assertThat(monitor.getInterval()).isEqualTo(Duration.ofMinutes(1));
+                    assertThat(monitor.getTimeout()).isEqualTo(Duration.ofSeconds(2));
+                    assertThat(monitor.getStaleAfter()).isEqualTo(5);
+                    assertThat(monitor.getNodes()).hasSize(2);
+                    assertThat(context).hasSingleBean(OllamaHealthIndicator.class);
+                    assertThat(context.getBean(OllamaEndpoint.class).ollama()).containsKeys("nodes", "slowRequests");
+                });
+        contextRunner
+                .withPropertyValues("ollama.monitor.enabled=false")
+                .run(context -> assertThat(context)
+                        .doesNotHaveBean(NodeMonitor.class)
+                        .doesNotHaveBean(OllamaHealthIndicator.class));
+        contextRunner
+                .withPropertyValues("management.health.ollama.enabled=false")
+                .run(context -> assertThat(context)
+                        .doesNotHaveBean(NodeMonitor.class)
+                        .doesNotHaveBean(OllamaEndpoint.class));
+        contextRunner
+                .withPropertyValues("management.endpoints.web.exposure.include=ollama",
+                        "management.health.ollama.enabled=false")
+                .run(context -> assertThat(context)
+                        .hasSingleBean(NodeMonitor.class)
+                        .doesNotHaveBean(OllamaHealthIndicator.class));
+    }
+
     @Test
     void shouldBackOffWhenUserDefinesOllamaClient() {
         contextRunner
@@ -114,4 +285,12 @@ class OllamaAutoConfigurationTest {
             return new OllamaStreamingClient(mock(WebClient.class));
         }
     }
+
+    @Configuration
+    static class ToolConfig {
+        @Bean
+        AgentTool clockTool() {
+            return AgentTool.of("clock", "Current time", Map.of("type", "object"), arguments -> "12:00");
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package io.github.bayazit.ollama.autoconfigure;
+
+import io.github.bayazit.ollama.model.ChatRequest;
+import io.github.bayazit.ollama.model.json.ChatResponseDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OllamaRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void shouldRegisterReflectionForModelTypes() {
+        new OllamaRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(ChatRequest.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ChatResponseDeserializer.class)).accepts(hints);
+    }
+
+    @Test
+    void shouldListEveryClassOfTheModelPackage() throws Exception {
+        File modelDir = new File(ChatRequest.class.getResource("ChatRequest.class").toURI()).getParentFile();
+        String[] classes = Objects.requireNonNull(modelDir.list((dir, name) -> name.endsWith(".class") && !name.contains("$")));
+
+        assertThat(OllamaRuntimeHints.MODEL_TYPES)
+                .extracting(Class::getSimpleName)
+                .containsAll(Arrays.stream(classes).map(name -> name.replace(".class", "")).toList());
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.bayazit.ollama.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BatchJobRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void run_shouldMergeEmbedRecordsWithSameSettingsAndSplitResults() throws Exception {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.embed(any())).thenAnswer(invocation -> {
+            EmbedRequest request = invocation.getArgument(0);
+            List<List<Double>> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInput().size(); i++) {
+                embeddings.add(List.of((double) embeddings.size() + 1));
+            }
+            return EmbedResponse.builder().model("nomic").embeddings(embeddings)
+                    .promptEvalCount(2 * request.getInput().size()).build();
+        });
+        Path input = write(
+                "{\"id\":\"a\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":[\"x\",\"y\"]}}",
+                "{\"id\":\"b\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":[\"z\"]}}",
+                "{\"id\":\"c\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":[\"w\"],\"truncate\":false}}");
+
+        BatchReport report = BatchJobRunner.builder().client(client).concurrency(1).build()
+                .run(input, dir.resolve("out.jsonl"), dir.resolve("progress.log"));
+
+        ArgumentCaptor<EmbedRequest> captor = ArgumentCaptor.forClass(EmbedRequest.class);
+        verify(client, times(2)).embed(captor.capture());
+        assertThat(captor.getAllValues()).extracting(EmbedRequest::getInput, EmbedRequest::getTruncate)
+                .containsExactlyInAnyOrder(tuple(List.of("x", "y", "z"), null), tuple(List.of("w"), false));
+
+        List<JsonNode> results = readOutput();
+        assertThat(results).hasSize(3);
+        JsonNode b = results.stream().filter(r -> r.get("id").asText().equals("b")).findFirst().orElseThrow();
+        assertThat(b.at("/response/embeddings/0/0").asDouble()).isEqualTo(3.0);
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        assertThat(report.getPromptTokens()).isEqualTo(8);
+        assertThat(report.getModels()).containsKey("nomic");
+    }
+
+    @Test
+    void run_shouldFailWholeEmbedUnitWithoutPartialSuccessOnCountMismatch() throws Exception {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.embed(any())).thenReturn(EmbedResponse.builder()
+                .model("nomic")
+                .embeddings(List.of(List.of(1.0), List.of(2.0)))
+                .build());
+        Path input = write(
+                "{\"id\":\"a\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":[\"x\",\"y\"]}}",
+                "{\"id\":\"b\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":[\"z\"]}}");
+        Path progress = dir.resolve("progress.log");
+
+        BatchReport report = BatchJobRunner.builder().client(client).build()
+                .run(input, dir.resolve("out.jsonl"), progress);
+
+        assertThat(readOutput()).hasSize(2).allSatisfy(r -> assertThat(r.has("error")).isTrue());
+        assertThat(report.getSucceeded()).isZero();
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(Files.readAllLines(progress)).isEmpty();
+    }
+
+    @Test
+    void run_shouldFailInvalidRecordsWithoutAbortingTheJob() throws Exception {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.embed(any())).thenReturn(EmbedResponse.builder()
+                .model("nomic")
+                .embeddings(List.of(List.of(1.0)))
+                .build());
+        Path input = write(
+                "{\"id\":\"a\",\"type\":\"embed\"}",
+                "{\"id\":\"b\",\"request\":{\"model\":\"nomic\",\"input\":[\"x\"]}}",
+                "{\"id\":\"c\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":\"x\"}}",
+                "{\"id\":\"d\",\"type\":\"embed\",\"request\":{\"model\":\"nomic\",\"input\":[\"x\"]}}");
+
+        BatchReport report = BatchJobRunner.builder().client(client).build()
+                .run(input, dir.resolve("out.jsonl"), dir.resolve("progress.log"));
+
+        assertThat(readOutput()).extracting(r -> r.get("id").asText(), r -> r.path("error").asText(null))
+                .containsExactlyInAnyOrder(
+                        tuple("a", "Invalid record: missing request object"),
+                        tuple("b", "Invalid record: missing type"),
+                        tuple("c", "Invalid record: embed request input must be an array"),
+                        tuple("d", null));
+        assertThat(report.getRecords()).isEqualTo(4);
+        assertThat(report.getSucceeded()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(3);
+    }
+
+    @Test
+    void run_shouldSkipCompletedRecordsAndReportFailures() throws Exception {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.generate(any())).thenAnswer(invocation -> {
+            GenerateRequest request = invocation.getArgument(0);
+            if (request.getPrompt().equals("boom")) {
+                throw new IllegalStateException("server error");
+            }
+            return GenerateResponse.builder().response("ok").promptEvalCount(5).evalCount(7).build();
+        });
+        Path input = write(
+                "{\"id\":\"1\",\"type\":\"generate\",\"request\":{\"model\":\"llama3.2\",\"prompt\":\"hi\"}}",
+                "{\"id\":\"2\",\"type\":\"generate\",\"request\":{\"model\":\"llama3.2\",\"prompt\":\"boom\"}}",
+                "{\"id\":\"3\",\"type\":\"generate\",\"request\":{\"model\":\"llama3.2\",\"prompt\":\"again\"}}");
+        Path progress = dir.resolve("progress.log");
+        Files.writeString(progress, "3\n");
+
+        BatchReport report = BatchJobRunner.builder().client(client).build()
+                .run(input, dir.resolve("out.jsonl"), progress);
+
+        assertThat(report.getRecords()).isEqualTo(2);
+        assertThat(report.getSkipped()).isEqualTo(1);
+        assertThat(report.getSucceeded()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getEvalTokens()).isEqualTo(7);
+        assertThat(Files.readAllLines(progress)).containsExactly("3", "1");
+        assertThat(readOutput()).anySatisfy(r -> assertThat(r.path("error").asText()).isEqualTo("server error"));
+    }
+
+    private Path write(String... lines) throws Exception {
+        Path input = dir.resolve("in.jsonl");
+        Files.write(input, List.of(lines));
+        return input;
+    }
+
+    private List<JsonNode> readOutput() throws Exception {
+        return Files.readAllLines(dir.resolve("out.jsonl")).stream()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,384 @@
+package io.github.bayazit.ollama.client;
+
+import io.github.bayazit.ollama.actuate.OllamaEndpoint;
+import io.github.bayazit.ollama.actuate.OllamaHealthIndicator;
+import io.github.bayazit.ollama.model.*;
+import io.github.bayazit.ollama.testserver.FakeOllamaServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises the clients over real sockets against {@link FakeOllamaServer}.
+ */
+class OllamaClientIntegrationTest {
+
+    private FakeOllamaServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private OllamaClient client() {
+        return new OllamaClient(RestClient.create(server.getBaseUrl()));
+    }
+
+    private static ChatRequest chatRequest() {
+        return ChatRequest.builder()
+                .model("llama3.2")
+                .messages(List.of(Message.builder().role(Role.USER).content("hello there").build()))
+                .build();
+    }
+
+    @Test
+    void chat_shouldReturnCompleteResponseWithServerTimings() throws Exception {
+        server = FakeOllamaServer.builder().tokens(5).modelLoadDelay(Duration.ofMillis(20)).build().start();
+
+        ChatResponse response = client().chat(chatRequest());
+
+        assertThat(response.getDone()).isTrue();
+        assertThat(response.getMessage().getContent()).startsWith("token0 token1");
+        assertThat(response.getPromptEvalCount()).isEqualTo(2);
+        assertThat(response.getEvalCount()).isEqualTo(5);
+        assertThat(response.getLoadDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    void chatStream_shouldEmitOneChunkPerTokenPlusFinalChunk() throws Exception {
+        server = FakeOllamaServer.builder().tokens(4).tokensPerSecond(200).build().start();
+        OllamaStreamingClient streamingClient = new OllamaStreamingClient(WebClient.create(server.getBaseUrl()));
+
+        StepVerifier.create(streamingClient.chatStream(chatRequest()))
+                .expectNextCount(4)
+                .assertNext(last -> assertThat(last.getDone()).isTrue())
+                .verifyComplete();
+    }
+
+    @Test
+    void chat_shouldAttachTimingBreakdownAndLogSlowRequests() throws Exception {
+        server = FakeOllamaServer.builder().tokens(3).timeToFirstToken(Duration.ofMillis(50)).build().start();
+        SlowRequestLog slowLog = new SlowRequestLog(Duration.ofMillis(40), 2, 1.0);
+        SlowRequestLog neverSlow = new SlowRequestLog(Duration.ofMinutes(1), 2, 1.0);
+        OllamaClient client = new OllamaClient(RestClient.create(server.getBaseUrl()),
+                RequestTimingListener.of(List.of(slowLog, neverSlow)));
+
+        RequestTiming timing = client.chat(chatRequest()).getTiming();
+        client.generate(GenerateRequest.builder().model("llama3.2").prompt("hi").build());
+        client.chat(chatRequest());
+
+        assertThat(timing.getEndpoint()).isEqualTo("/api/chat");
+        assertThat(timing.getModel()).isEqualTo("llama3.2");
+        assertThat(timing.getPromptEval()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(timing.getTimeToFirstByte()).isGreaterThanOrEqualTo(timing.getPromptEval());
+        assertThat(timing.getDecode()).isPositive();
+        assertThat(timing.getTotal()).isEqualTo(timing.getTimeToFirstByte().plus(timing.getDecode()));
+        assertThat(timing.getOverhead()).isNotNull();
+        assertThat(slowLog.getSlowRequests()).isEqualTo(3);
+        assertThat(slowLog.getEntries()).extracting(RequestTiming::getEndpoint)
+                .containsExactly("/api/chat", "/api/generate");
+        assertThat(neverSlow.getEntries()).isEmpty();
+    }
+
+    @Test
+    void chatStream_shouldAttachTimingToFinalChunk() throws Exception {
+        server = FakeOllamaServer.builder().tokens(3).tokensPerSecond(100).build().start();
+        List<RequestTiming> timings = new ArrayList<>();
+        OllamaStreamingClient streamingClient = new OllamaStreamingClient(
+                () -> WebClient.create(server.getBaseUrl()), timings::add);
+
+        ChatResponse last = streamingClient.chatStream(chatRequest()).blockLast();
+
+        assertThat(last.getTiming()).isNotNull();
+        assertThat(last.getTiming().getDecode()).isNull();
+        assertThat(last.getTiming().getTimeToFirstByte()).isLessThan(last.getTiming().getTotal());
+        assertThat(last.getTiming().getEvalCount()).isEqualTo(3);
+        assertThat(timings).containsExactly(last.getTiming());
+    }
+
+    @Test
+    void chat_shouldPublishTimingOfFailedCallsThroughUserStatusHandler() throws Exception {
+        server = FakeOllamaServer.builder().build().start();
+        server.failNext(1, 503);
+        SlowRequestLog slowLog = new SlowRequestLog(Duration.ZERO, 4, 1.0);
+        OllamaClient client = new OllamaClient(RestClient.builder()
+                .baseUrl(server.getBaseUrl())
+                .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> {
+                    throw new IllegalStateException("ollama returned " + response.getStatusCode().value());
+                })
+                .build(), slowLog);
+
+        assertThatThrownBy(() -> client.chat(chatRequest()))
+                .isInstanceOf(IllegalStateException.class).hasMessage("ollama returned 503");
+        client.chat(chatRequest());
+
+        List<RequestTiming> entries = slowLog.getEntries();
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).getError()).isNull();
+        assertThat(entries.get(0).getDecode()).isNotNull();
+        assertThat(entries.get(1).getEndpoint()).isEqualTo("/api/chat");
+        assertThat(entries.get(1).getError()).contains("ollama returned 503");
+        assertThat(entries.get(1).getTimeToFirstByte()).isLessThanOrEqualTo(entries.get(1).getTotal());
+        assertThat(client.getInFlight()).isZero();
+    }
+
+    @Test
+    void chatStream_shouldPublishTimingOfFailedAndCancelledStreams() throws Exception {
+        server = FakeOllamaServer.builder().tokens(20).tokensPerSecond(100).build().start();
+        List<RequestTiming> timings = new ArrayList<>();
+        OllamaStreamingClient streamingClient = new OllamaStreamingClient(
+                () -> WebClient.create(server.getBaseUrl()), timings::add);
+
+        streamingClient.chatStream(chatRequest()).take(2).blockLast();
+        server.failNext(1, 500);
+        assertThatThrownBy(() -> streamingClient.chatStream(chatRequest()).blockLast())
+                .isInstanceOf(WebClientResponseException.class);
+
+        assertThat(timings).extracting(RequestTiming::getError)
+                .satisfiesExactly(
+                        error -> assertThat(error).isEqualTo("cancelled"),
+                        error -> assertThat(error).contains("500"));
+    }
+
+    private static ChatRequest longChatRequest() {
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            history.add(Message.builder().role(Role.USER).content("Turn " + i + ": please summarize the report").build());
+        }
+        return ChatRequest.builder().model("llama3.2").messages(history).build();
+    }
+
+    @Test
+    void gzipInterceptor_shouldCompressLargeBodiesAndDecodeResponses() throws Exception {
+        server = FakeOllamaServer.builder().tokens(200).gzip(true).build().start();
+        OllamaClient client = new OllamaClient(RestClient.builder()
+                .baseUrl(server.getBaseUrl())
+                .requestInterceptor(new GzipCompressionInterceptor(Set.of("/api/chat"), 1024, 6, true))
+                .build());
+
+        ChatResponse response = client.chat(longChatRequest());
+        client.chat(chatRequest());
+
+        assertThat(response.getMessage().getContent()).startsWith("token0 token1").endsWith("token199 ");
+        assertThat(server.getCompressedRequestCount()).isEqualTo(1);
+        assertThat(server.getRequestBytes()).isLessThan(2000);
+        // 200 tokens of text alone are over 1.5 KB uncompressed, per response
+        assertThat(server.getResponseBytes()).isLessThan(1500);
+    }
+
+    @Test
+    void gzipInterceptor_shouldMatchPathsBehindBaseUrlPrefix() throws Exception {
+        server = FakeOllamaServer.builder().pathPrefix("/ollama").build().start();
+        OllamaClient client = new OllamaClient(RestClient.builder()
+                .baseUrl(server.getBaseUrl())
+                .requestInterceptor(new GzipCompressionInterceptor(Set.of("/api/chat"), 1024, 6, true))
+                .build());
+
+        client.chat(longChatRequest());
+        client.embed(EmbedRequest.builder().model("nomic-embed-text").input(List.of("x".repeat(2000))).build());
+
+        assertThat(server.getBaseUrl()).endsWith("/ollama");
+        assertThat(server.getRequestCount("/api/chat")).isEqualTo(1);
+        assertThat(server.getCompressedRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void gzipFilter_shouldCompressStreamingRequestsAndDecodeChunks() throws Exception {
+        server = FakeOllamaServer.builder().tokens(3).gzip(true).build().start();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(server.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().compress(true)))
+                .filter(new GzipCompressionFilter(Set.of(), 1024, 6))
+                .build();
+
+        StepVerifier.create(new OllamaStreamingClient(webClient).chatStream(longChatRequest()))
+                .expectNextCount(3)
+                .assertNext(last -> assertThat(last.getDone()).isTrue())
+                .verifyComplete();
+        assertThat(server.getCompressedRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void modelManagement_shouldRoundTripThroughServer() throws Exception {
+        server = FakeOllamaServer.builder().models("llama3.2").build().start();
+        OllamaClient client = client();
+
+        client.pullModel("mistral");
+        assertThat(client.listModels().getModels()).extracting(ModelInfo::getName).containsExactly("llama3.2", "mistral");
+        assertThat(client.showModel("mistral").getName()).isEqualTo("mistral");
+        client.deleteModel("mistral");
+        assertThat(server.getModels()).containsExactly("llama3.2");
+        assertThat(client.isAvailable()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nodeMonitor_shouldCacheNodeStateForHealthAndEndpoint() throws Exception {
+        server = FakeOllamaServer.builder().models("llama3.2", "mistral").build().start();
+        OllamaClient client = client();
+        client.chat(chatRequest());
+        Map<String, OllamaClient> nodes = new LinkedHashMap<>();
+        nodes.put(server.getBaseUrl(), client);
+        nodes.put("http://127.0.0.1:1", new OllamaClient(RestClient.create("http://127.0.0.1:1")));
+
+        try (NodeMonitor monitor = new NodeMonitor(nodes, Duration.ofMinutes(1))) {
+            OllamaHealthIndicator health = new OllamaHealthIndicator(monitor);
+            assertThat(health.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+            monitor.poll();
+
+            NodeState up = monitor.getStates().get(server.getBaseUrl());
+            assertThat(up.isUp()).isTrue();
+            assertThat(up.getLoadedModels()).extracting(RunningModel::getName).containsExactly("llama3.2");
+            assertThat(up.getLoadedModels().get(0).getExpiresAt()).isNotNull();
+            assertThat(up.getMemoryBytes()).isEqualTo(4_000_000_000L);
+            assertThat(up.getVramBytes()).isEqualTo(3_000_000_000L);
+            assertThat(up.getAvailableModels()).containsExactly("llama3.2", "mistral");
+            NodeState down = monitor.getStates().get("http://127.0.0.1:1");
+            assertThat(down.isUp()).isFalse();
+            assertThat(down.getError()).isNotNull();
+
+            assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+            assertThat(health.health().getDetails()).containsKeys(server.getBaseUrl(), "http://127.0.0.1:1");
+
+            Map<String, Object> state = new OllamaEndpoint(null, monitor, null).ollama();
+            assertThat(state).containsOnlyKeys("nodes");
+            assertThat((Map<String, Object>) state.get("nodes")).hasSize(2)
+                    .extractingByKey(server.getBaseUrl())
+                    .satisfies(node -> assertThat((Map<String, Object>) node)
+                            .containsEntry("status", "UP")
+                            .containsEntry("inFlight", 0)
+                            .containsEntry("memoryBytes", 4_000_000_000L));
+        }
+        assertThat(client.getInFlight()).isZero();
+    }
+
+    @Test
+    void nodeMonitor_shouldKeepLastStateOfNodesThatStopAnsweringUntilStale() throws Exception {
+        server = FakeOllamaServer.builder().build().start();
+        AtomicBoolean hang = new AtomicBoolean();
+        CountDownLatch release = new CountDownLatch(1);
+        OllamaClient hanging = new OllamaClient(RestClient.create(server.getBaseUrl())) {
+            @Override
+            public RunningModelList listRunningModels() {
+                if (hang.get()) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.listRunningModels();
+            }
+        };
+        OllamaClient broken = new OllamaClient(RestClient.create(server.getBaseUrl())) {
+            @Override
+            public RunningModelList listRunningModels() {
+                throw new StackOverflowError();
+            }
+        };
+        // Warm both clients so that the first poll answers well within the short timeout
+        hanging.listRunningModels();
+        hanging.listModels();
+        Duration timeout = Duration.ofMillis(500);
+
+        try (NodeMonitor monitor = new NodeMonitor(Map.of("hanging", hanging, "broken", broken),
+                Duration.ofMinutes(1), timeout, 2);
+             NodeMonitor fresh = new NodeMonitor(Map.of("hanging", hanging), Duration.ofMinutes(1), timeout)) {
+            OllamaHealthIndicator health = new OllamaHealthIndicator(monitor);
+            monitor.poll();
+            NodeState answered = monitor.getStates().get("hanging");
+            hang.set(true);
+            monitor.poll();
+            NodeState missed = monitor.getStates().get("hanging");
+            Status healthAfterMiss = health.health().getStatus();
+            monitor.poll();
+            NodeState stale = monitor.getStates().get("hanging");
+            fresh.poll();
+
+            assertThat(answered.isUp()).isTrue();
+            assertThat(answered.getError()).isNull();
+            assertThat(missed.isUp()).isTrue();
+            assertThat(missed.isStale()).isFalse();
+            assertThat(missed.getPolledAt()).isEqualTo(answered.getPolledAt());
+            assertThat(missed.getError()).isEqualTo("No answer within 500 ms");
+            assertThat(healthAfterMiss).isEqualTo(Status.UP);
+            assertThat(stale.isStale()).isTrue();
+            assertThat(stale.getMissedPolls()).isEqualTo(2);
+            assertThat(stale.getPolledAt()).isEqualTo(answered.getPolledAt());
+            assertThat(stale.getError()).isEqualTo("No answer within 500 ms in 2 polls");
+            assertThat(health.health().getStatus()).isEqualTo(Status.DOWN);
+            assertThat(monitor.getStates().get("broken").isUp()).isFalse();
+            assertThat(monitor.getStates().get("broken").getError()).contains("StackOverflowError");
+            assertThat(fresh.getStates().get("hanging").isUp()).isFalse();
+            assertThat(fresh.getStates().get("hanging").getError()).isEqualTo("No answer within 500 ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void embed_shouldReturnOneVectorPerInput() throws Exception {
+        server = FakeOllamaServer.builder().embeddingDimensions(8).build().start();
+
+        EmbedResponse response = client().embed(EmbedRequest.builder()
+                .model("nomic-embed-text").input(List.of("a", "b")).build());
+
+        assertThat(response.getEmbeddings()).hasSize(2).allSatisfy(vector -> assertThat(vector).hasSize(8));
+    }
+
+    @Test
+    void chat_shouldSurfaceInjectedServerErrors() throws Exception {
+        server = FakeOllamaServer.builder().build().start();
+        server.failNext(1, 500);
+
+        assertThatThrownBy(() -> client().chat(chatRequest())).isInstanceOf(HttpServerErrorException.class);
+        assertThat(client().chat(chatRequest()).getDone()).isTrue();
+    }
+
+    @Test
+    void concurrentRequests_shouldBeLimitedByServerParallelism() throws Exception {
+        server = FakeOllamaServer.builder().tokens(4).tokensPerSecond(400).maxParallel(2).build().start();
+        OllamaClient client = client();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ChatResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(pool.submit(() -> client.chat(chatRequest())));
+            }
+            for (Future<ChatResponse> future : futures) {
+                assertThat(future.get().getDone()).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(server.getRequestCount("/api/chat")).isEqualTo(16);
+        assertThat(server.getMaxObservedParallelism()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.bayazit.ollama.image;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bayazit.ollama.model.ImageAttachment;
+import io.github.bayazit.ollama.model.Message;
+import io.github.bayazit.ollama.model.Role;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageAttachmentsTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, 0xff000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private List<String> images(Message message) throws Exception {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(message));
+        return objectMapper.convertValue(json.get("images"), objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, String.class));
+    }
+
+    @Test
+    void serialize_shouldStreamEverySourceAsBase64AfterInlineImages() throws Exception {
+        byte[] image = png(20, 10);
+        Path file = Files.write(dir.resolve("image.png"), image);
+        String base64 = Base64.getEncoder().encodeToString(image);
+        Message message = Message.builder()
+                .role(Role.USER)
+                .images(List.of("aGk="))
+                .attachments(List.of(
+                        ImageAttachment.of(file),
+                        ImageAttachment.of(image),
+                        ImageAttachment.of(new ByteArrayInputStream(image))))
+                .build();
+
+        assertThat(images(message)).containsExactly("aGk=", base64, base64, base64);
+        assertThatThrownBy(() -> objectMapper.writeValueAsString(message))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void encoder_shouldReplaceStreamedImage() throws Exception {
+        ImageAttachment attachment = ImageAttachment.of(new byte[]{1, 2, 3})
+                .withEncoder(image -> Base64.getEncoder().encode(new byte[]{(byte) image.length}));
+
+        assertThat(images(Message.builder().attachments(List.of(attachment)).build())).containsExactly("Aw==");
+        assertThat(attachment.toBase64()).isEqualTo("Aw==");
+    }
+
+    @Test
+    void processor_shouldDownscaleToMaxDimension() throws Exception {
+        ImageAttachments attachments = new ImageAttachments(new ImageProcessor(100, 0, 0.8f), null);
+
+        String sent = images(Message.builder().attachments(List.of(attachments.of(png(400, 200)))).build()).get(0);
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(sent)));
+        assertThat(decoded.getWidth()).isEqualTo(100);
+        assertThat(decoded.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void processor_shouldPassSmallImagesThrough() throws Exception {
+        byte[] image = png(50, 50);
+
+        assertThat(new ImageProcessor(100, 0, 0.8f).process(image)).isSameAs(image);
+        assertThat(new ImageProcessor(100, 0, 0.8f).process(new byte[]{1, 2, 3})).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void cache_shouldReuseEncodedImagesAcrossTurns() throws Exception {
+        ImageCache cache = new ImageCache(1 << 20);
+        ImageAttachments attachments = new ImageAttachments(new ImageProcessor(100, 0, 0.8f), cache);
+        byte[] image = png(300, 300);
+
+        String first = images(Message.builder().attachments(List.of(attachments.of(image))).build()).get(0);
+        String second = images(Message.builder().attachments(List.of(attachments.of(image))).build()).get(0);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cache_shouldEvictLeastRecentlyUsedWhenFull() {
+        ImageCache cache = new ImageCache(10);
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        cache.get("a");
+        cache.put("c", new byte[4]);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.getBytes()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.bayazit.ollama.ingest;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmbeddingPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    /**
+     * Client whose embedding of a chunk is its length, with some latency to overlap calls.
+     */
+    private OllamaClient client() {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.embed(any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                EmbedRequest request = invocation.getArgument(0);
+                return EmbedResponse.builder()
+                        .embeddings(request.getInput().stream().map(text -> List.of((double) text.length())).toList())
+                        .build();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        return client;
+    }
+
+    private Path file() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 50_000; i++) {
+            text.append("Sentence number ").append(i).append(" is here. ");
+        }
+        return Files.writeString(dir.resolve("corpus.txt"), text);
+    }
+
+    @Test
+    void embed_shouldReturnChunksInOrderWithBoundedCalls() throws Exception {
+        EmbeddingPipeline pipeline = EmbeddingPipeline.builder()
+                .client(client()).model("nomic-embed-text")
+                .chunkSize(500).overlap(50).batchSize(4).maxInFlight(3)
+                .build();
+
+        List<EmbeddedChunk> chunks = new ArrayList<>();
+        try (EmbeddingPipeline.Results results = pipeline.embed(file())) {
+            results.forEachRemaining(chunks::add);
+        }
+
+        assertThat(chunks).hasSizeGreaterThan(100);
+        for (int i = 1; i < chunks.size(); i++) {
+            assertThat(chunks.get(i).getOffset()).isGreaterThan(chunks.get(i - 1).getOffset());
+        }
+        assertThat(chunks).allSatisfy(c -> assertThat(c.getVector()[0]).isEqualTo((float) c.getLength()));
+        assertThat(maxRunning.get()).isBetween(2, 3);
+    }
+
+    @Test
+    void results_shouldCloseSourceWhenExhaustedOrFailed() throws Exception {
+        EmbeddingPipeline pipeline = EmbeddingPipeline.builder()
+                .client(client()).model("nomic-embed-text").chunkSize(500).overlap(50).build();
+        FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ);
+
+        pipeline.embed(new TextChunker(channel, StandardCharsets.UTF_8, 500, 50)).forEachRemaining(chunk -> {
+        });
+        assertThat(channel.isOpen()).isFalse();
+
+        OllamaClient failing = mock(OllamaClient.class);
+        when(failing.embed(any())).thenThrow(new IllegalStateException("model not found"));
+        FileChannel failed = FileChannel.open(file(), StandardOpenOption.READ);
+        EmbeddingPipeline.Results results = EmbeddingPipeline.builder().client(failing).model("missing").build()
+                .embed(new TextChunker(failed, StandardCharsets.UTF_8, 500, 50));
+
+        assertThatThrownBy(results::hasNext).hasMessage("model not found");
+        assertThat(failed.isOpen()).isFalse();
+    }
+
+    @Test
+    void reactiveEmbed_shouldMatchBlockingResults() throws Exception {
+        EmbeddingPipeline pipeline = EmbeddingPipeline.builder()
+                .client(client()).model("nomic-embed-text")
+                .chunkSize(500).overlap(0).batchSize(8).maxInFlight(2)
+                .build();
+        Path file = file();
+
+        List<Long> offsets = ReactiveEmbedding.embed(pipeline, file)
+                .map(EmbeddedChunk::getOffset)
+                .collectList()
+                .block();
+
+        List<Long> expected = new ArrayList<>();
+        try (TextChunker chunker = pipeline.chunker(file)) {
+            chunker.forEachRemaining(chunk -> expected.add(chunk.getOffset()));
+        }
+        assertThat(offsets).isEqualTo(expected);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.bayazit.ollama.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextChunkerTest {
+
+    private static List<TextChunk> chunk(String text, int maxChars, int overlap) {
+        TextChunker chunker = new TextChunker(
+                Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+                StandardCharsets.UTF_8, maxChars, overlap);
+        List<TextChunk> chunks = new ArrayList<>();
+        chunker.forEachRemaining(chunks::add);
+        return chunks;
+    }
+
+    @Test
+    void next_shouldBreakAfterSentencesAndReportOffsets() {
+        String text = "First sentence here. Second one follows! And a third sentence ends the text.";
+
+        List<TextChunk> chunks = chunk(text, 30, 0);
+
+        assertThat(chunks).extracting(TextChunk::getText)
+                .containsExactly("First sentence here. ", "Second one follows! ", "And a third sentence ends the ", "text.");
+        for (TextChunk chunk : chunks) {
+            assertThat(text.substring((int) chunk.getOffset())).startsWith(chunk.getText());
+        }
+    }
+
+    @Test
+    void next_shouldRepeatOverlapBetweenChunks() {
+        String text = "alpha beta gamma delta epsilon zeta eta theta iota kappa";
+
+        List<TextChunk> chunks = chunk(text, 20, 6);
+
+        for (int i = 1; i < chunks.size(); i++) {
+            TextChunk previous = chunks.get(i - 1);
+            assertThat(chunks.get(i).getOffset())
+                    .isEqualTo(previous.getOffset() + previous.getText().length() - 6);
+        }
+        assertThat(chunks.get(chunks.size() - 1).getText()).endsWith("kappa");
+    }
+
+    @Test
+    void next_shouldCapOverlapAtHalfOfChunksCutEarly() {
+        // Only break point is just past the middle of each window, so chunks are about maxChars / 2 long
+        String text = ("x".repeat(50) + " ").repeat(100);
+
+        List<TextChunk> chunks = chunk(text, 100, 90);
+
+        assertThat(chunks).hasSizeLessThan(text.length() / 20);
+        for (int i = 1; i < chunks.size(); i++) {
+            TextChunk previous = chunks.get(i - 1);
+            assertThat(chunks.get(i).getOffset() - previous.getOffset())
+                    .isGreaterThanOrEqualTo(previous.getText().length() / 2);
+        }
+        assertThat(chunks.get(chunks.size() - 1).getOffset() + chunks.get(chunks.size() - 1).getText().length())
+                .isEqualTo(text.length());
+    }
+
+    @Test
+    void next_shouldStreamLargeMultiByteInputAcrossReadBuffers() {
+        // 3- and 4-byte characters make read buffer boundaries fall inside characters
+        String sentence = "\u65e5\u672c\u8a9e\u306e\u6587\u3002 caf\u00e9 na\u00efve \ud83d\ude00. ";
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 300_000) {
+            text.append(sentence);
+        }
+
+        List<TextChunk> chunks = chunk(text.toString(), 1000, 0);
+
+        StringBuilder rebuilt = new StringBuilder();
+        for (TextChunk chunk : chunks) {
+            assertThat(chunk.getOffset()).isEqualTo(rebuilt.length());
+            assertThat(chunk.getText().length()).isLessThanOrEqualTo(1000);
+            rebuilt.append(chunk.getText());
+        }
+        assertThat(rebuilt.toString()).isEqualTo(text.toString());
+        assertThat(chunks.get(0).getText()).endsWith(". ");
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.bayazit.ollama.model.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bayazit.ollama.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void message_shouldRoundTripAndOmitNulls() throws Exception {
+        Message message = Message.builder().role(Role.USER).content("hi").images(List.of("aGk=")).build();
+
+        String json = objectMapper.writeValueAsString(message);
+
+        assertThat(json).isEqualTo("{\"role\":\"user\",\"content\":\"hi\",\"images\":[\"aGk=\"]}");
+        assertThat(objectMapper.readValue(json, Message.class)).isEqualTo(message);
+        assertThat(objectMapper.writeValueAsString(Message.builder().content("x").build()))
+                .isEqualTo("{\"content\":\"x\"}");
+    }
+
+    @Test
+    void chatResponse_shouldReadAllFieldsAndSkipUnknown() throws Exception {
+        String json = """
+                {"model":"llama3.2","created_at":"2024-01-01T00:00:00Z",
+                 "message":{"role":"assistant","content":"Hi","extra":{"a":[1,2]}},
+                 "done":true,"done_reason":"stop","total_duration":10,"load_duration":1,
+                 "prompt_eval_count":5,"prompt_eval_duration":2,"eval_count":7,"eval_duration":3}
+                """;
+
+        ChatResponse response = objectMapper.readValue(json, ChatResponse.class);
+
+        assertThat(response).isEqualTo(ChatResponse.builder()
+                .model("llama3.2")
+                .createdAt("2024-01-01T00:00:00Z")
+                .message(Message.builder().role(Role.ASSISTANT).content("Hi").build())
+                .done(true)
+                .totalDuration(10L)
+                .loadDuration(1L)
+                .promptEvalCount(5)
+                .promptEvalDuration(2L)
+                .evalCount(7)
+                .evalDuration(3L)
+                .build());
+    }
+
+    @Test
+    void message_shouldReadAndWriteToolCalls() throws Exception {
+        String json = """
+                {"role":"assistant","content":"",
+                 "tool_calls":[{"function":{"index":0,"name":"get_weather",
+                                            "arguments":{"city":"Paris","days":[1,2]}}}]}
+                """;
+
+        Message message = objectMapper.readValue(json, Message.class);
+
+        ToolCallFunction function = message.getToolCalls().get(0).getFunction();
+        assertThat(function.getName()).isEqualTo("get_weather");
+        assertThat(function.getIndex()).isZero();
+        assertThat(function.getArguments()).containsEntry("city", "Paris").containsEntry("days", List.of(1, 2));
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsString(message), Message.class)).isEqualTo(message);
+        assertThat(objectMapper.writeValueAsString(Message.builder().role(Role.TOOL).content("18C").toolName("get_weather").build()))
+                .isEqualTo("{\"role\":\"tool\",\"content\":\"18C\",\"tool_name\":\"get_weather\"}");
+        assertThat(objectMapper.writeValueAsString(ChatRequest.builder()
+                .tools(List.of(Tool.function("get_weather", "Current weather", Map.of("type", "object"))))
+                .build()))
+                .isEqualTo("{\"tools\":[{\"type\":\"function\",\"function\":{\"name\":\"get_weather\","
+                        + "\"description\":\"Current weather\",\"parameters\":{\"type\":\"object\"}}}]}");
+    }
+
+    @Test
+    void generateResponse_shouldMatchBeanSerialization() throws Exception {
+        GenerateResponse expected = GenerateResponse.builder()
+                .model("llama3.2")
+                .response("Hi")
+                .done(false)
+                .context(List.of(1L, 2L))
+                .evalCount(3)
+                .build();
+
+        GenerateResponse actual = objectMapper.readValue(objectMapper.writeValueAsString(expected), GenerateResponse.class);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(objectMapper.readValue("{\"message\":null}", ChatResponse.class).getMessage()).isNull();
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.bayazit.ollama.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MapReducePipelineTest {
+
+    @TempDir
+    Path checkpoints;
+
+    @Test
+    void run_shouldMapEveryChunkAndReduceInTree() {
+        List<Integer> reduceSizes = Collections.synchronizedList(new ArrayList<>());
+        MapReducePipeline<String> pipeline = MapReducePipeline.<String>builder()
+                .splitter(input -> List.of(input.split(",")))
+                .mapper(String::toUpperCase)
+                .reducer(parts -> {
+                    reduceSizes.add(parts.size());
+                    return String.join("", parts);
+                })
+                .parallelism(3)
+                .fanIn(2)
+                .build();
+
+        String result = pipeline.run("a,b,c,d,e");
+
+        assertThat(result).isEqualTo("ABCDE");
+        assertThat(reduceSizes).allMatch(size -> size <= 2);
+    }
+
+    @Test
+    void run_shouldPublishPartialResultsInChunkOrderWhenOrdered() {
+        List<Integer> published = new ArrayList<>();
+        MapReducePipeline<String> pipeline = MapReducePipeline.<String>builder()
+                .splitter(input -> List.of(input.split(",")))
+                .mapper(chunk -> {
+                    sleep(chunk.equals("a") ? 50 : 0);
+                    return chunk;
+                })
+                .reducer(parts -> String.join("", parts))
+                .parallelism(4)
+                .listener(result -> published.add(result.getIndex()))
+                .build();
+
+        pipeline.run("a,b,c,d");
+
+        assertThat(published).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void run_shouldResumeFromCheckpointsAfterFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        FileCheckpointStore<String> store = new FileCheckpointStore<>(checkpoints, String.class);
+        MapReducePipeline<String> failing = MapReducePipeline.<String>builder()
+                .splitter(input -> List.of(input.split(",")))
+                .mapper(chunk -> {
+                    calls.incrementAndGet();
+                    if (chunk.equals("c")) {
+                        throw new IllegalStateException("node down");
+                    }
+                    return chunk;
+                })
+                .reducer(parts -> String.join("", parts))
+                .parallelism(1)
+                .checkpointStore(store)
+                .build();
+
+        assertThatThrownBy(() -> failing.run("a,b,c,d"))
+                .isInstanceOf(MapReduceException.class)
+                .satisfies(e -> assertThat(((MapReduceException) e).getFailedChunks()).containsExactly(2));
+        assertThat(calls).hasValue(3);
+
+        List<Boolean> restored = new ArrayList<>();
+        calls.set(0);
+        MapReducePipeline<String> resumed = MapReducePipeline.<String>builder()
+                .splitter(input -> List.of(input.split(",")))
+                .mapper(chunk -> {
+                    calls.incrementAndGet();
+                    return chunk;
+                })
+                .reducer(parts -> String.join("", parts))
+                .checkpointStore(store)
+                .listener(result -> restored.add(result.isRestored()))
+                .build();
+
+        assertThat(resumed.run("a,b,c,d")).isEqualTo("abcd");
+        assertThat(calls).hasValue(2);
+        assertThat(restored).containsExactly(true, true, false, false);
+        assertThat(store.load(0, "a")).isEmpty();
+    }
+
+    @Test
+    void fixedSizeSplitter_shouldOverlapAndBreakOnWhitespace() {
+        List<String> chunks = TextSplitter.fixedSize(10, 3).apply("alpha beta gamma delta");
+
+        assertThat(chunks).allMatch(chunk -> chunk.length() <= 10);
+        assertThat(chunks.get(0)).isEqualTo("alpha ");
+        assertThat(String.join("", chunks)).contains("gamma");
+        for (int i = 1; i < chunks.size(); i++) {
+            String previous = chunks.get(i - 1);
+            assertThat(chunks.get(i)).startsWith(previous.substring(previous.length() - 3));
+        }
+    }
+
+    @Test
+    void fixedSizeSplitter_shouldNotCrossLimitOnParagraphAtChunkEnd() {
+        List<String> chunks = TextSplitter.fixedSize(10, 0).apply("abcdefghi\n\njklmnop");
+
+        assertThat(chunks).allMatch(chunk -> chunk.length() <= 10);
+        assertThat(String.join("", chunks)).isEqualTo("abcdefghi\n\njklmnop");
+    }
+
+    @Test
+    void run_shouldReportReduceFailuresByGroup() {
+        MapReducePipeline<String> pipeline = MapReducePipeline.<String>builder()
+                .splitter(input -> List.of(input.split(",")))
+                .mapper(chunk -> chunk)
+                .reducer(parts -> {
+                    if (parts.contains("c")) {
+                        throw new IllegalStateException("context too long");
+                    }
+                    return String.join("", parts);
+                })
+                .fanIn(2)
+                .parallelism(1)
+                .build();
+
+        assertThatThrownBy(() -> pipeline.run("a,b,c,d"))
+                .isInstanceOf(MapReduceException.class)
+                .hasMessageContaining("reduce group")
+                .satisfies(e -> {
+                    MapReduceException failure = (MapReduceException) e;
+                    assertThat(failure.getStage()).isEqualTo(MapReduceException.Stage.REDUCE);
+                    assertThat(failure.getFailedGroups()).containsExactly(1);
+                    assertThat(failure.getFailedChunks()).isEmpty();
+                });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
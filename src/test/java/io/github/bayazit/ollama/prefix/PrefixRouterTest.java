@@ -0,0 +1,213 @@
+package io.github.bayazit.ollama.prefix;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.GenerateRequest;
+import io.github.bayazit.ollama.model.GenerateResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrefixRouterTest {
+
+    private static final String SYSTEM = "You classify support tickets. ".repeat(40);
+
+    @Test
+    void registry_shouldDetectRepeatedPrefixAtBlockBoundaries() {
+        PrefixRegistry registry = new PrefixRegistry(64, 3, 1024);
+        String shared = "Answer in one word. ".repeat(10);
+
+        assertThat(registry.resolve(request("llama3.2", null, shared + "first"))).isEmpty();
+        assertThat(registry.resolve(request("llama3.2", null, shared + "second"))).isEmpty();
+        SharedPrefix prefix = registry.resolve(request("llama3.2", null, shared + "third")).orElseThrow();
+
+        assertThat(prefix.isDeclared()).isFalse();
+        assertThat(prefix.getPrompt()).hasSize(192).isEqualTo(shared.substring(0, 192));
+        assertThat(registry.resolve(request("llama3.2", null, shared + "fourth"))).contains(prefix);
+        assertThat(registry.resolve(request("other", null, shared + "fifth"))).isEmpty();
+    }
+
+    @Test
+    void registry_shouldEvictLeastRecentlySeenDetectedPrefixes() {
+        PrefixRegistry registry = new PrefixRegistry(64, 2, 4);
+        List<SharedPrefix> detected = new ArrayList<>();
+        for (char c = 'a'; c < 'g'; c++) {
+            String shared = String.valueOf(c).repeat(64);
+            registry.resolve(request("llama3.2", null, shared + "first"));
+            detected.add(registry.resolve(request("llama3.2", null, shared + "second")).orElseThrow());
+        }
+
+        assertThat(registry.getPrefixes()).hasSize(4).containsExactlyElementsOf(detected.subList(2, 6));
+    }
+
+    @Test
+    void registry_shouldPreferLongestDeclaredPrefix() {
+        PrefixRegistry registry = new PrefixRegistry(64, 0, 1024);
+        registry.declare("short", null, SYSTEM, "");
+        SharedPrefix fewShot = registry.declare("few-shot", "llama3.2", SYSTEM, "Example: refund -> billing\n");
+
+        assertThat(registry.resolve(request("llama3.2", SYSTEM, "Example: refund -> billing\nTicket: hi")))
+                .contains(fewShot);
+        assertThat(registry.resolve(request("mistral", SYSTEM, "Example: refund -> billing\nTicket: hi")))
+                .hasValueSatisfying(prefix -> assertThat(prefix.getId()).isEqualTo("short"));
+        assertThat(registry.resolve(request("llama3.2", "Other system", "Ticket: hi"))).isEmpty();
+    }
+
+    @Test
+    void generate_shouldRouteToWarmNodeAndPreWarmTheOthers() {
+        Map<String, CachingNode> simulated = new LinkedHashMap<>();
+        Map<String, OllamaClient> nodes = new LinkedHashMap<>();
+        for (String name : List.of("a", "b", "c")) {
+            CachingNode node = new CachingNode();
+            simulated.put(name, node);
+            nodes.put(name, node.client);
+        }
+        PrefixRegistry registry = new PrefixRegistry();
+        SharedPrefix prefix = registry.declare("support", null, SYSTEM, "");
+        PrefixRouter router = PrefixRouter.builder().nodes(nodes).registry(registry).executor(Runnable::run).build();
+
+        GenerateRequest first = request("llama3.2", SYSTEM, "0 ticket");
+        router.generate(first);
+        assertThat(first.getKeepAlive()).isNull();
+        assertThat(router.warmNodes(prefix, "llama3.2")).containsExactly("a", "b", "c");
+        assertThat(simulated.values()).allSatisfy(node -> assertThat(node.requests).isNotEmpty());
+        assertThat(simulated.values()).allSatisfy(node -> assertThat(node.requests.get(0).getKeepAlive()).isEqualTo("1800s"));
+
+        for (int i = 1; i <= 9; i++) {
+            router.generate(request("llama3.2", SYSTEM, i + " ticket"));
+        }
+        assertThat(simulated.values()).allSatisfy(node -> assertThat(node.requests)
+                .allSatisfy(sent -> assertThat(sent.getKeepAlive()).isEqualTo("1800s")));
+
+        PrefixStats stats = router.stats();
+        assertThat(stats.getColdRequests()).isEqualTo(1);
+        assertThat(stats.getAffinityRequests()).isEqualTo(9);
+        assertThat(stats.getWarmups()).isEqualTo(2);
+        assertThat(stats.getAverageColdPromptEvalTokens()).isEqualTo(SYSTEM.length() + 8);
+        assertThat(stats.getAverageAffinityPromptEvalTokens()).isEqualTo(8);
+    }
+
+    @Test
+    void generate_shouldRouteControlGroupWithoutAffinity() {
+        CachingNode node = new CachingNode();
+        PrefixRegistry registry = new PrefixRegistry();
+        registry.declare("support", null, SYSTEM, "");
+        PrefixRouter router = PrefixRouter.builder()
+                .nodes(Map.of("a", node.client))
+                .registry(registry)
+                .controlFraction(1.0)
+                .build();
+
+        router.generate(request("llama3.2", SYSTEM, "Ticket 1"));
+        router.generate(request("llama3.2", SYSTEM, "Ticket 2"));
+        router.generate(request("llama3.2", null, "unrelated"));
+
+        PrefixStats stats = router.stats();
+        assertThat(stats.getColdRequests()).isEqualTo(1);
+        assertThat(stats.getControlRequests()).isEqualTo(1);
+        assertThat(stats.getAffinityRequests()).isZero();
+        assertThat(stats.getUnmatchedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void warm_shouldCountTowardsNodeLoad() throws Exception {
+        OllamaClient idle = mock(OllamaClient.class);
+        OllamaClient warming = mock(OllamaClient.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idle.generate(any())).thenReturn(GenerateResponse.builder().response("ok").build());
+        when(warming.generate(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return GenerateResponse.builder().response("ok").build();
+        });
+        Map<String, OllamaClient> nodes = new LinkedHashMap<>();
+        nodes.put("idle", idle);
+        nodes.put("warming", warming);
+        PrefixRegistry registry = new PrefixRegistry();
+        SharedPrefix prefix = registry.declare("support", null, SYSTEM, "");
+        PrefixRouter router = PrefixRouter.builder().nodes(nodes).registry(registry).build();
+
+        CompletableFuture<Void> warmup = router.warm(prefix, "llama3.2");
+        verify(warming, timeout(5000)).generate(any());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!router.warmNodes(prefix, "llama3.2").contains("idle") && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        for (int i = 0; i < 4; i++) {
+            router.generate(request("llama3.2", null, "unrelated " + i));
+        }
+        release.countDown();
+        warmup.get(5, TimeUnit.SECONDS);
+
+        verify(idle, times(5)).generate(any());
+        verify(warming, times(1)).generate(any());
+    }
+
+    @Test
+    void close_shouldStopOwnWarmupPoolOnly() {
+        Map<String, OllamaClient> nodes = Map.of("a", mock(OllamaClient.class));
+        SharedPrefix prefix = new PrefixRegistry().declare("support", null, SYSTEM, "");
+        PrefixRouter owning = PrefixRouter.builder().nodes(nodes).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        PrefixRouter borrowing = PrefixRouter.builder().nodes(nodes).executor(executor).build();
+
+        owning.close();
+        borrowing.close();
+
+        assertThatThrownBy(() -> owning.warm(prefix, "llama3.2")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.isShutdown()).isFalse();
+        executor.shutdown();
+    }
+
+    private static GenerateRequest request(String model, String system, String prompt) {
+        return GenerateRequest.builder().model(model).system(system).prompt(prompt).build();
+    }
+
+    /**
+     * Mock node that charges one prompt token per character not covered by the longest common prefix
+     * with a previously evaluated prompt, like Ollama's prompt cache.
+     */
+    private static class CachingNode {
+
+        final OllamaClient client = mock(OllamaClient.class);
+        final List<GenerateRequest> requests = new ArrayList<>();
+        final List<String> evaluated = new ArrayList<>();
+
+        CachingNode() {
+            when(client.generate(any())).thenAnswer(invocation -> {
+                GenerateRequest request = invocation.getArgument(0);
+                String text = (request.getSystem() != null ? request.getSystem() : "") + request.getPrompt();
+                int cached = 0;
+                synchronized (this) {
+                    requests.add(request);
+                    for (String previous : evaluated) {
+                        int common = 0;
+                        while (common < Math.min(previous.length(), text.length())
+                                && previous.charAt(common) == text.charAt(common)) {
+                            common++;
+                        }
+                        cached = Math.max(cached, common);
+                    }
+                    evaluated.add(text);
+                }
+                return GenerateResponse.builder().response("ok").promptEvalCount(text.length() - cached).build();
+            });
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.bayazit.ollama.ratelimit;
+
+import io.github.bayazit.ollama.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenRateLimiterTest {
+
+    private final TokenEstimator estimator = new TokenEstimator(4.0, 100);
+
+    private TokenRateLimiter limiter(long burst) {
+        // Refill slowly enough that tests observe no replenishment
+        return new TokenRateLimiter(TokenLimit.builder().tokensPerSecond(0.001).burst(burst).build(),
+                Map.of(), estimator, Duration.ZERO);
+    }
+
+    @Test
+    void estimate_shouldUseMessageLengthAndNumPredict() {
+        ChatRequest request = ChatRequest.builder()
+                .messages(List.of(Message.builder().role(Role.USER).content("x".repeat(40)).build()))
+                .options(OllamaOptions.builder().numPredict(20).build())
+                .build();
+
+        assertThat(estimator.estimate(request)).isEqualTo(30);
+        assertThat(estimator.estimate(GenerateRequest.builder().prompt("abcd").build())).isEqualTo(101);
+    }
+
+    @Test
+    void chat_shouldReconcileEstimateWithActualCounts() {
+        TokenRateLimiter limiter = limiter(1000);
+        ChatRequest request = ChatRequest.builder()
+                .messages(List.of(Message.builder().role(Role.USER).content("x".repeat(400)).build()))
+                .build();
+
+        limiter.chat("tenant", request, r -> ChatResponse.builder().promptEvalCount(90).evalCount(10).build());
+
+        assertThat(limiter.getAvailableTokens("tenant")).isEqualTo(900);
+        assertThat(limiter.getConsumedTokens()).isEqualTo(100);
+    }
+
+    @Test
+    void embed_shouldReconcileEstimateWithPromptEvalCount() {
+        TokenRateLimiter limiter = limiter(1000);
+        EmbedRequest request = EmbedRequest.builder().input(List.of("x".repeat(400))).build();
+
+        limiter.embed("tenant", request, r -> EmbedResponse.builder().promptEvalCount(60).build());
+
+        assertThat(limiter.getAvailableTokens("tenant")).isEqualTo(940);
+        assertThat(limiter.getConsumedTokens()).isEqualTo(60);
+    }
+
+    @Test
+    void chat_shouldRefundChargeWhenCallFails() {
+        TokenRateLimiter limiter = limiter(1000);
+        ChatRequest request = ChatRequest.builder()
+                .messages(List.of(Message.builder().role(Role.USER).content("x".repeat(400)).build()))
+                .build();
+
+        assertThatThrownBy(() -> limiter.chat("tenant", request, r -> {
+            throw new IllegalStateException("read timed out");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("read timed out");
+
+        assertThat(limiter.getAvailableTokens("tenant")).isEqualTo(1000);
+        assertThat(limiter.getConsumedTokens()).isZero();
+    }
+
+    @Test
+    void acquire_shouldRejectWhenBudgetExhausted() {
+        TokenRateLimiter limiter = limiter(100);
+        limiter.acquire("tenant", 80);
+
+        assertThatThrownBy(() -> limiter.acquire("tenant", 30))
+                .isInstanceOf(RateLimitExceededException.class)
+                .satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfter()).isPositive());
+        assertThat(limiter.getAvailableTokens("tenant")).isEqualTo(20);
+        assertThat(limiter.getAvailableTokens("other")).isEqualTo(100);
+        assertThat(limiter.getRejectedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_shouldNotChargeOthersWhileRejecting() throws Exception {
+        TokenRateLimiter limiter = limiter(100);
+        limiter.acquire("tenant", 80);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger rejections = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    try {
+                        limiter.acquire("tenant", 30);
+                    } catch (RateLimitExceededException e) {
+                        rejections.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+
+        int refused = 0;
+        while (!pool.isTerminated()) {
+            Optional<TokenRateLimiter.Reservation> reservation = limiter.tryAcquire("tenant", 20);
+            if (reservation.isPresent()) {
+                reservation.get().cancel();
+            } else {
+                refused++;
+            }
+        }
+
+        assertThat(rejections).hasValue(40_000);
+        assertThat(refused).isZero();
+        assertThat(limiter.getAvailableTokens("tenant")).isEqualTo(20);
+    }
+
+    @Test
+    void cancel_shouldRefundReservation() {
+        TokenRateLimiter limiter = limiter(100);
+        TokenRateLimiter.Reservation reservation = limiter.tryAcquire("tenant", 60).orElseThrow();
+
+        assertThat(limiter.tryAcquire("tenant", 60)).isEmpty();
+        reservation.cancel();
+        assertThat(limiter.tryAcquire("tenant", 60)).isPresent();
+    }
+
+    @Test
+    void tryAcquire_shouldNeverOverspendUnderConcurrency() throws Exception {
+        TokenRateLimiter limiter = limiter(1000);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            pool.execute(() -> limiter.tryAcquire("tenant", 1).ifPresent(r -> granted.incrementAndGet()));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted).hasValue(1000);
+    }
+}
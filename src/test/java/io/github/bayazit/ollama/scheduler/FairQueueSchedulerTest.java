@@ -0,0 +1,119 @@
+package io.github.bayazit.ollama.scheduler;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairQueueSchedulerTest {
+
+    private static PriorityClass priorityClass(String name, int priority, double weight, int maxConcurrency) {
+        return PriorityClass.builder().name(name).priority(priority).weight(weight).maxConcurrency(maxConcurrency).build();
+    }
+
+    @Test
+    void acquire_shouldDispatchHigherPriorityClassFirst() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, List.of(
+                priorityClass("batch", 0, 1, 0),
+                priorityClass("interactive", 10, 1, 0)));
+        FairQueueScheduler.Permit running = scheduler.acquire("batch").join();
+        CompletableFuture<FairQueueScheduler.Permit> batch = scheduler.acquire("batch");
+        CompletableFuture<FairQueueScheduler.Permit> interactive = scheduler.acquire("interactive");
+
+        running.release();
+
+        assertThat(interactive).isCompleted();
+        assertThat(batch).isNotCompleted();
+        interactive.join().release();
+        assertThat(batch).isCompleted();
+    }
+
+    @Test
+    void acquire_shouldShareSlotsByWeightWithinSamePriority() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, List.of(
+                priorityClass("heavy", 0, 3, 0),
+                priorityClass("light", 0, 1, 0)));
+        FairQueueScheduler.Permit running = scheduler.acquire("heavy").join();
+        List<CompletableFuture<FairQueueScheduler.Permit>> queued = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            queued.add(scheduler.acquire("heavy"));
+            queued.add(scheduler.acquire("light"));
+        }
+
+        List<String> dispatched = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            running.release();
+            CompletableFuture<FairQueueScheduler.Permit> next = queued.stream()
+                    .filter(CompletableFuture::isDone)
+                    .findFirst().orElseThrow();
+            queued.remove(next);
+            running = next.join();
+            dispatched.add(running.getPriorityClass());
+        }
+
+        assertThat(dispatched.stream().filter("heavy"::equals).count()).isEqualTo(6);
+    }
+
+    @Test
+    void acquire_shouldRespectClassConcurrencyQuota() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(4, List.of(
+                priorityClass("batch", 0, 1, 1),
+                priorityClass("interactive", 0, 1, 0)));
+
+        CompletableFuture<FairQueueScheduler.Permit> first = scheduler.acquire("batch");
+        CompletableFuture<FairQueueScheduler.Permit> second = scheduler.acquire("batch");
+        CompletableFuture<FairQueueScheduler.Permit> interactive = scheduler.acquire("interactive");
+
+        assertThat(first).isCompleted();
+        assertThat(second).isNotCompleted();
+        assertThat(interactive).isCompleted();
+        assertThat(scheduler.getStats()).filteredOn(s -> s.getPriorityClass().equals("batch"))
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.getQueueDepth()).isEqualTo(1);
+                    assertThat(s.getRunning()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void acquire_shouldSkipCancelledWaiters() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, List.of(priorityClass("default", 0, 1, 0)));
+        FairQueueScheduler.Permit running = scheduler.acquire(null).join();
+        CompletableFuture<FairQueueScheduler.Permit> cancelled = scheduler.acquire(null);
+        CompletableFuture<FairQueueScheduler.Permit> next = scheduler.acquire(null);
+
+        cancelled.cancel(false);
+        assertThat(scheduler.getQueued()).isEqualTo(1);
+        assertThat(scheduler.getStats()).extracting(SchedulerStats::getQueueDepth).containsExactly(1);
+        running.release();
+
+        assertThat(next).isCompleted();
+        assertThat(scheduler.getRunning()).isEqualTo(1);
+        assertThat(scheduler.getQueued()).isZero();
+    }
+
+    @Test
+    void acquire_shouldRejectUnknownClass() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, List.of(priorityClass("default", 0, 1, 0)));
+
+        assertThatThrownBy(() -> scheduler.acquire("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void schedule_shouldHoldPermitForLifetimeOfStream() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, List.of(priorityClass("default", 0, 1, 0)));
+
+        StepVerifier.create(ReactiveScheduling.schedule(scheduler, "default", () -> Flux.just("a", "b")))
+                .assertNext(value -> assertThat(scheduler.getRunning()).isEqualTo(1))
+                .expectNext("b")
+                .verifyComplete();
+
+        assertThat(scheduler.getRunning()).isZero();
+    }
+}
@@ -0,0 +1,600 @@
+package io.github.bayazit.ollama.testserver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.bayazit.ollama.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embeddable stand-in for an Ollama server on a real socket, for integration and load tests of the
+ * clients without a GPU.
+ * <p>
+ * Responses are generated at {@code tokensPerSecond} after {@code timeToFirstToken}, and the first request
+ * for a model additionally waits {@code modelLoadDelay}. Like Ollama, at most {@code maxParallel} requests
+ * are processed at once and up to {@code maxQueue} more wait for a slot; beyond that the server answers
+ * 503. Errors can be injected randomly with {@code errorRate} or deterministically with
+ * {@link #failNext(int, int)}. Gzip request bodies are always accepted, and with {@code gzip} enabled
+ * responses are compressed for clients that accept it, like a compressing reverse proxy in front of
+ * Ollama.
+ * <pre>
+ * try (FakeOllamaServer server = FakeOllamaServer.builder().tokensPerSecond(200).build().start()) {
+ *     OllamaClient client = new OllamaClient(RestClient.create(server.getBaseUrl()));
+ *     ...
+ * }
+ * </pre>
+ */
+public class FakeOllamaServer implements AutoCloseable {
+
+    private static final String RESPONSE_BODY = FakeOllamaServer.class.getName() + ".responseBody";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Builder config;
+    private final Set<String> models = ConcurrentHashMap.newKeySet();
+    private final Set<String> loadedModels = ConcurrentHashMap.newKeySet();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final Semaphore slots;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger forcedFailures = new AtomicInteger();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder compressedRequests = new LongAdder();
+    private volatile int forcedFailureStatus = 500;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private FakeOllamaServer(Builder config) {
+        this.config = config;
+        this.models.addAll(config.models);
+        this.slots = new Semaphore(config.maxParallel, true);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public FakeOllamaServer start() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.port), 0);
+        server.setExecutor(executor);
+        String prefix = config.pathPrefix;
+        server.createContext(prefix.isEmpty() ? "/" : prefix, exchange -> handle(exchange, this::root, false));
+        server.createContext(prefix + "/api/chat", exchange -> handle(exchange, this::chat, true));
+        server.createContext(prefix + "/api/generate", exchange -> handle(exchange, this::generate, true));
+        server.createContext(prefix + "/api/embed", exchange -> handle(exchange, this::embed, true));
+        server.createContext(prefix + "/api/tags", exchange -> handle(exchange, this::tags, false));
+        server.createContext(prefix + "/api/ps", exchange -> handle(exchange, this::ps, false));
+        server.createContext(prefix + "/api/show", exchange -> handle(exchange, this::show, false));
+        server.createContext(prefix + "/api/pull", exchange -> handle(exchange, this::pull, false));
+        server.createContext(prefix + "/api/delete", exchange -> handle(exchange, this::delete, false));
+        server.start();
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + config.pathPrefix;
+    }
+
+    /**
+     * Fails the next {@code count} requests with {@code status}.
+     */
+    public void failNext(int count, int status) {
+        forcedFailureStatus = status;
+        forcedFailures.set(count);
+    }
+
+    public long getRequestCount(String path) {
+        LongAdder count = requestCounts.get(path);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * Highest number of requests that were processed concurrently.
+     */
+    public int getMaxObservedParallelism() {
+        return maxActive.get();
+    }
+
+    public Set<String> getModels() {
+        return Set.copyOf(models);
+    }
+
+    /**
+     * Request body bytes received on the wire, before decompression.
+     */
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    /**
+     * Response body bytes sent on the wire, after compression.
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    public long getCompressedRequestCount() {
+        return compressedRequests.sum();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint, boolean inference) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring(config.pathPrefix.length());
+        requestCounts.computeIfAbsent(path, k -> new LongAdder()).increment();
+        try (exchange; ResponseFinisher finisher = () -> finishResponse(exchange)) {
+            JsonNode body = readBody(exchange);
+            if (forcedFailures.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+                sendError(exchange, forcedFailureStatus, "injected failure");
+                return;
+            }
+            if (config.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate) {
+                sendError(exchange, config.errorStatus, "injected failure");
+                return;
+            }
+            if (!inference) {
+                endpoint.handle(exchange, body);
+                return;
+            }
+            if (waiting.incrementAndGet() > config.maxParallel + config.maxQueue) {
+                waiting.decrementAndGet();
+                sendError(exchange, 503, "server busy, please try again");
+                return;
+            }
+            slots.acquireUninterruptibly();
+            try {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                endpoint.handle(exchange, body);
+            } finally {
+                active.decrementAndGet();
+                slots.release();
+                waiting.decrementAndGet();
+            }
+        } catch (IOException e) {
+            // Client went away mid-response
+        }
+    }
+
+    private void root(HttpExchange exchange, JsonNode body) throws IOException {
+        send(exchange, 200, "text/plain", "Ollama is running".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void chat(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = requireModel(exchange, body);
+        if (model == null) {
+            return;
+        }
+        boolean stream = body.path("stream").asBoolean(true);
+        long promptTokens = countPromptTokens(body.path("messages"));
+        stream(exchange, model, stream, promptTokens, (token, done, stats) -> {
+            ChatResponse.ChatResponseBuilder response = ChatResponse.builder()
+                    .model(model)
+                    .createdAt(Instant.now().toString())
+                    .message(Message.builder().role(Role.ASSISTANT).content(token).build())
+                    .done(done);
+            if (done) {
+                response.totalDuration(stats.total).loadDuration(stats.load)
+                        .promptEvalCount((int) promptTokens).promptEvalDuration(stats.promptEval)
+                        .evalCount(config.tokens).evalDuration(stats.eval);
+            }
+            return response.build();
+        });
+    }
+
+    private void generate(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = requireModel(exchange, body);
+        if (model == null) {
+            return;
+        }
+        boolean stream = body.path("stream").asBoolean(true);
+        long promptTokens = words(body.path("prompt").asText("")) + words(body.path("system").asText(""));
+        stream(exchange, model, stream, promptTokens, (token, done, stats) -> {
+            GenerateResponse.GenerateResponseBuilder response = GenerateResponse.builder()
+                    .model(model)
+                    .createdAt(Instant.now().toString())
+                    .response(token)
+                    .done(done);
+            if (done) {
+                response.totalDuration(stats.total).loadDuration(stats.load)
+                        .promptEvalCount((int) promptTokens).promptEvalDuration(stats.promptEval)
+                        .evalCount(config.tokens).evalDuration(stats.eval);
+            }
+            return response.build();
+        });
+    }
+
+    private void embed(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = requireModel(exchange, body);
+        if (model == null) {
+            return;
+        }
+        loadModel(model);
+        List<List<Double>> embeddings = new ArrayList<>();
+        JsonNode input = body.path("input");
+        List<String> inputs = new ArrayList<>();
+        if (input.isArray()) {
+            input.forEach(node -> inputs.add(node.asText()));
+        } else {
+            inputs.add(input.asText());
+        }
+        for (String text : inputs) {
+            Random random = new Random(text.hashCode());
+            List<Double> vector = new ArrayList<>(config.embeddingDimensions);
+            for (int i = 0; i < config.embeddingDimensions; i++) {
+                vector.add(random.nextGaussian());
+            }
+            embeddings.add(vector);
+        }
+        sendJson(exchange, EmbedResponse.builder().model(model).embeddings(embeddings).build());
+    }
+
+    private void tags(HttpExchange exchange, JsonNode body) throws IOException {
+        List<ModelInfo> infos = models.stream().sorted().map(this::info).toList();
+        sendJson(exchange, ModelList.builder().models(infos).build());
+    }
+
+    private void ps(HttpExchange exchange, JsonNode body) throws IOException {
+        String expiresAt = Instant.now().plus(Duration.ofMinutes(5)).toString();
+        List<RunningModel> running = loadedModels.stream().sorted().map(model -> RunningModel.builder()
+                .name(model)
+                .model(model)
+                .size(4_000_000_000L)
+                .sizeVram(3_000_000_000L)
+                .digest(Integer.toHexString(model.hashCode()))
+                .expiresAt(expiresAt)
+                .build()).toList();
+        sendJson(exchange, RunningModelList.builder().models(running).build());
+    }
+
+    private void show(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = requireModel(exchange, body);
+        if (model != null) {
+            sendJson(exchange, info(model));
+        }
+    }
+
+    private void pull(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = body.path("model").asText();
+        models.add(model);
+        sendJson(exchange, PullResponse.builder().status("success").build());
+    }
+
+    private void delete(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = requireModel(exchange, body);
+        if (model != null) {
+            models.remove(model);
+            loadedModels.remove(model);
+            send(exchange, 200, "application/json", new byte[0]);
+        }
+    }
+
+    private void stream(HttpExchange exchange, String model, boolean stream, long promptTokens,
+                        ChunkFactory chunks) throws IOException {
+        long start = System.nanoTime();
+        long load = loadModel(model);
+        long promptEvalStart = System.nanoTime();
+        sleep(config.timeToFirstToken);
+        long promptEval = System.nanoTime() - promptEvalStart;
+        long nanosPerToken = config.tokensPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / config.tokensPerSecond : 0;
+
+        OutputStream out = startResponse(exchange, 200, stream ? "application/x-ndjson" : "application/json", 0);
+        StringBuilder text = new StringBuilder();
+        long evalStart = System.nanoTime();
+        for (int i = 0; i < config.tokens; i++) {
+            if (i > 0 && nanosPerToken > 0) {
+                LockSupport.parkNanos(nanosPerToken);
+            }
+            String token = "token" + i + " ";
+            if (stream) {
+                out.write(objectMapper.writeValueAsBytes(chunks.create(token, false, null)));
+                out.write('\n');
+                out.flush();
+            } else {
+                text.append(token);
+            }
+        }
+        long eval = System.nanoTime() - evalStart;
+        Stats stats = new Stats(System.nanoTime() - start, load, promptEval, eval);
+        out.write(objectMapper.writeValueAsBytes(chunks.create(stream ? "" : text.toString(), true, stats)));
+        out.write('\n');
+        out.flush();
+    }
+
+    private long loadModel(String model) {
+        if (loadedModels.contains(model)) {
+            return 0;
+        }
+        synchronized (loadedModels) {
+            if (loadedModels.contains(model)) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            sleep(config.modelLoadDelay);
+            loadedModels.add(model);
+            return System.nanoTime() - start;
+        }
+    }
+
+    private String requireModel(HttpExchange exchange, JsonNode body) throws IOException {
+        String model = body.path("model").asText(null);
+        if (model == null || !models.contains(model)) {
+            sendError(exchange, 404, "model '" + model + "' not found");
+            return null;
+        }
+        return model;
+    }
+
+    private ModelInfo info(String model) {
+        return ModelInfo.builder()
+                .name(model)
+                .modifiedAt("2024-01-01T00:00:00Z")
+                .size(4_000_000_000L)
+                .digest(Integer.toHexString(model.hashCode()))
+                .details(Map.of("family", "fake", "parameter_size", "8B"))
+                .build();
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            requestBytes.add(bytes.length);
+            if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                compressedRequests.increment();
+                try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                    bytes = gzip.readAllBytes();
+                }
+            }
+            return bytes.length > 0 ? objectMapper.readTree(bytes) : objectMapper.createObjectNode();
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, Object body) throws IOException {
+        send(exchange, 200, "application/json", objectMapper.writeValueAsBytes(body));
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "application/json",
+                objectMapper.writeValueAsBytes(Map.of("error", message)));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        OutputStream out = startResponse(exchange, status, contentType, body.length > 0 ? body.length : -1);
+        if (body.length > 0) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Sends the status line and headers and returns the body stream, gzip-compressed if enabled and
+     * accepted by the client. {@code length} follows {@link HttpExchange#sendResponseHeaders}.
+     */
+    private OutputStream startResponse(HttpExchange exchange, int status, String contentType, long length)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = config.gzip && length >= 0 && accept != null && accept.contains("gzip");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, gzip ? 0 : length);
+        OutputStream out = new CountingOutputStream(exchange.getResponseBody(), responseBytes);
+        if (gzip) {
+            // Sync flush so that streamed NDJSON lines reach the client as they are written
+            out = new GZIPOutputStream(out, true);
+        }
+        exchange.setAttribute(RESPONSE_BODY, out);
+        return out;
+    }
+
+    private static void finishResponse(HttpExchange exchange) throws IOException {
+        if (exchange.getAttribute(RESPONSE_BODY) instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+    }
+
+    private static long countPromptTokens(JsonNode messages) {
+        long tokens = 0;
+        for (JsonNode message : messages) {
+            tokens += words(message.path("content").asText(""));
+        }
+        return tokens;
+    }
+
+    private static long words(String text) {
+        return text.isBlank() ? 0 : text.trim().split("\\s+").length;
+    }
+
+    private static void sleep(Duration duration) {
+        if (!duration.isZero()) {
+            LockSupport.parkNanos(duration.toNanos());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseFinisher extends AutoCloseable {
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final LongAdder count;
+
+        CountingOutputStream(OutputStream out, LongAdder count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.add(len);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange exchange, JsonNode body) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkFactory {
+        Object create(String token, boolean done, Stats stats);
+    }
+
+    private record Stats(long total, long load, long promptEval, long eval) {
+    }
+
+    public static class Builder {
+
+        private int port = 0;
+        private List<String> models = List.of("llama3.2", "nomic-embed-text");
+        private int tokens = 32;
+        private int tokensPerSecond = 0;
+        private Duration timeToFirstToken = Duration.ZERO;
+        private Duration modelLoadDelay = Duration.ZERO;
+        private double errorRate = 0;
+        private int errorStatus = 500;
+        private int maxParallel = 4;
+        private int maxQueue = 512;
+        private int embeddingDimensions = 384;
+        private boolean gzip = false;
+        private String pathPrefix = "";
+
+        /**
+         * Port to listen on, 0 (the default) for an ephemeral port.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder models(String... models) {
+            this.models = List.of(models);
+            return this;
+        }
+
+        /**
+         * Number of tokens generated per chat or generate response.
+         */
+        public Builder tokens(int tokens) {
+            this.tokens = tokens;
+            return this;
+        }
+
+        /**
+         * Generation speed, 0 (the default) to emit tokens as fast as possible.
+         */
+        public Builder tokensPerSecond(int tokensPerSecond) {
+            this.tokensPerSecond = tokensPerSecond;
+            return this;
+        }
+
+        /**
+         * Simulated prompt evaluation time before the first token.
+         */
+        public Builder timeToFirstToken(Duration timeToFirstToken) {
+            this.timeToFirstToken = timeToFirstToken;
+            return this;
+        }
+
+        /**
+         * Delay of the first request for each model, repeated after the model is deleted.
+         */
+        public Builder modelLoadDelay(Duration modelLoadDelay) {
+            this.modelLoadDelay = modelLoadDelay;
+            return this;
+        }
+
+        /**
+         * Fraction of requests, between 0 and 1, that fail with {@code status}.
+         */
+        public Builder errorRate(double errorRate, int status) {
+            this.errorRate = errorRate;
+            this.errorStatus = status;
+            return this;
+        }
+
+        /**
+         * Requests processed concurrently, like {@code OLLAMA_NUM_PARALLEL}.
+         */
+        public Builder maxParallel(int maxParallel) {
+            this.maxParallel = maxParallel;
+            return this;
+        }
+
+        /**
+         * Requests allowed to wait for a slot before the server answers 503, like {@code OLLAMA_MAX_QUEUE}.
+         */
+        public Builder maxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+            return this;
+        }
+
+        public Builder embeddingDimensions(int embeddingDimensions) {
+            this.embeddingDimensions = embeddingDimensions;
+            return this;
+        }
+
+        /**
+         * Whether to gzip responses for clients that send {@code Accept-Encoding: gzip}.
+         */
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Path the API is served under, such as {@code /ollama} for a node behind a reverse proxy; part of
+         * {@link #getBaseUrl()}. Request counts are still keyed by the path without it.
+         */
+        public Builder pathPrefix(String pathPrefix) {
+            this.pathPrefix = pathPrefix;
+            return this;
+        }
+
+        public FakeOllamaServer build() {
+            return new FakeOllamaServer(this);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.bayazit.ollama.vector;
+
+import io.github.bayazit.ollama.model.EmbedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantizationTest {
+
+    private static float[] randomUnitVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return VectorMath.normalize(vector);
+    }
+
+    @Test
+    void float16_shouldRoundToNearestEven() {
+        assertThat(Float16.fromFloat(1.0f)).isEqualTo((short) 0x3c00);
+        assertThat(Float16.fromFloat(-2.0f)).isEqualTo((short) 0xc000);
+        assertThat(Float16.fromFloat(65504f)).isEqualTo((short) 0x7bff);
+        assertThat(Float16.fromFloat(65520f)).isEqualTo((short) 0x7c00);
+        assertThat(Float16.fromFloat(0x1.0p-24f)).isEqualTo((short) 0x0001);
+        assertThat(Float16.fromFloat(0x1.0p-25f)).isEqualTo((short) 0);
+        // 1 + 2^-11 is halfway between 1 and the next half; ties go to the even significand
+        assertThat(Float16.fromFloat(1.0f + 0x1.0p-11f)).isEqualTo((short) 0x3c00);
+        assertThat(Float16.toFloat((short) 0x3555)).isEqualTo(0.33325195f);
+        assertThat(Float16.toFloat(Float16.fromFloat(Float.NaN))).isNaN();
+        for (int bits = 0; bits < 0x7c00; bits++) {
+            assertThat(Float16.fromFloat(Float16.toFloat((short) bits))).isEqualTo((short) bits);
+        }
+    }
+
+    @Test
+    void quantizedDot_shouldApproximateFullPrecision() {
+        Random random = new Random(7);
+        float[] a = randomUnitVector(random, 1024);
+        float[] b = randomUnitVector(random, 1024);
+        for (int i = 0; i < 512; i++) {
+            b[i] = a[i];
+        }
+        VectorMath.normalize(b);
+        float exact = VectorMath.dot(a, b);
+
+        for (Quantization quantization : List.of(Quantization.FLOAT32, Quantization.FLOAT16, Quantization.INT8)) {
+            QuantizedVector qa = QuantizedVector.of(a, quantization);
+            QuantizedVector qb = QuantizedVector.of(b, quantization);
+            assertThat(QuantizedDistances.dot(qa, qb)).isCloseTo(exact, within(0.01f));
+            assertThat(QuantizedDistances.dot(a, qb)).isCloseTo(exact, within(0.01f));
+        }
+        QuantizedVector ba = QuantizedVector.of(a, Quantization.BINARY);
+        QuantizedVector bb = QuantizedVector.of(b, Quantization.BINARY);
+        assertThat(ba.byteSize()).isEqualTo(128);
+        assertThat(QuantizedDistances.hamming(ba, bb)).isBetween(100, 400);
+        assertThat(QuantizedDistances.hamming(ba, ba)).isZero();
+    }
+
+    @Test
+    void codec_shouldRoundTripEveryQuantization() throws Exception {
+        float[] vector = randomUnitVector(new Random(3), 300);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<QuantizedVector> vectors = List.of(Quantization.values()).stream()
+                .map(q -> QuantizedVector.of(vector, q))
+                .toList();
+        VectorCodec.writeAll(out, vectors);
+
+        assertThat(VectorCodec.readAll(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(vectors);
+        QuantizedVector int8 = vectors.get(2);
+        // kind, two varint bytes for 300, scale, data
+        assertThat(VectorCodec.encode(int8)).hasSize(1 + 2 + 4 + 300);
+        assertThat(VectorCodec.decode(VectorCodec.encode(int8)).toFloatArray()).isEqualTo(int8.toFloatArray());
+    }
+
+    @Test
+    void codec_shouldRejectNegativeOrImplausibleDimensions() {
+        byte[] negative = {0, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f};
+        byte[] huge = {0, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04};
+
+        assertThatThrownBy(() -> VectorCodec.read(new ByteArrayInputStream(negative)))
+                .isInstanceOf(IOException.class).hasMessageContaining("4294967295");
+        assertThatThrownBy(() -> VectorCodec.read(new ByteArrayInputStream(huge))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void embeddingQuantizer_shouldNormalizeBeforeQuantizing() {
+        EmbeddingQuantizer quantizer = new EmbeddingQuantizer(Quantization.FLOAT16, true);
+
+        List<QuantizedVector> vectors = quantizer.quantize(
+                EmbedResponse.builder().embeddings(List.of(List.of(3.0, 4.0))).build());
+
+        assertThat(vectors.get(0).toFloatArray()).containsExactly(new float[]{0.6f, 0.8f}, within(1e-3f));
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.bayazit.ollama.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VectorIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static float[][] randomVectors(int count, int dimensions, long seed) {
+        Random random = new Random(seed);
+        float[][] vectors = new float[count][dimensions];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    @Test
+    void bruteForce_shouldReturnClosestVectorsInOrder() {
+        BruteForceIndex index = new BruteForceIndex(2, VectorSimilarity.EUCLIDEAN);
+        index.add(new float[]{0, 0});
+        index.add(new float[]{5, 5});
+        index.add(new float[]{1, 0});
+        index.add(new float[]{0, 2});
+
+        List<SearchResult> results = index.search(new float[]{0.9f, 0}, 3);
+
+        assertThat(results).extracting(SearchResult::getId).containsExactly(2, 0, 3);
+        assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+    }
+
+    @Test
+    void cosine_shouldIgnoreMagnitude() {
+        BruteForceIndex index = new BruteForceIndex(2, VectorSimilarity.COSINE);
+        index.add(new float[]{10, 0});
+        index.add(new float[]{1, 1});
+
+        List<SearchResult> results = index.search(new float[]{0.1f, 0}, 1);
+
+        assertThat(results.get(0).getId()).isZero();
+        assertThat(results.get(0).getScore()).isCloseTo(1.0f, org.assertj.core.data.Offset.offset(1e-6f));
+    }
+
+    @Test
+    void search_shouldRejectNonPositiveK() {
+        for (VectorIndex index : List.of(new BruteForceIndex(2, VectorSimilarity.DOT_PRODUCT),
+                new HnswIndex(2, VectorSimilarity.DOT_PRODUCT))) {
+            index.add(new float[]{1, 0});
+            assertThatThrownBy(() -> index.search(new float[]{1, 0}, 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void search_shouldRejectQueriesOfOtherDimensions() {
+        for (VectorIndex index : List.of(new BruteForceIndex(2, VectorSimilarity.DOT_PRODUCT),
+                new HnswIndex(2, VectorSimilarity.DOT_PRODUCT))) {
+            index.add(new float[]{1, 0});
+            assertThatThrownBy(() -> index.search(new float[]{1}, 1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> index.search(new float[]{1, 0, 0}, 1))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Expected 2 dimensions but got 3");
+        }
+    }
+
+    @Test
+    void hnsw_shouldReachHighRecallAgainstBruteForce() {
+        int dimensions = 32;
+        float[][] vectors = randomVectors(3000, dimensions, 1);
+        BruteForceIndex exact = new BruteForceIndex(dimensions, VectorSimilarity.COSINE);
+        HnswIndex hnsw = new HnswIndex(dimensions, VectorSimilarity.COSINE, 16, 100, 64);
+        for (float[] vector : vectors) {
+            exact.add(vector);
+            hnsw.add(vector);
+        }
+
+        assertThat(recall(exact, hnsw, randomVectors(100, dimensions, 2), 10)).isGreaterThan(0.9);
+    }
+
+    @Test
+    void snapshots_shouldRoundTripAndAcceptAppends() throws Exception {
+        int dimensions = 16;
+        float[][] vectors = randomVectors(500, dimensions, 3);
+        BruteForceIndex exact = new BruteForceIndex(dimensions, VectorSimilarity.DOT_PRODUCT);
+        HnswIndex hnsw = new HnswIndex(dimensions, VectorSimilarity.DOT_PRODUCT);
+        for (float[] vector : vectors) {
+            exact.add(vector);
+            hnsw.add(vector);
+        }
+        exact.save(tempDir.resolve("exact.idx"));
+        hnsw.save(tempDir.resolve("hnsw.idx"));
+
+        BruteForceIndex loadedExact = BruteForceIndex.load(tempDir.resolve("exact.idx"));
+        HnswIndex loadedHnsw = HnswIndex.load(tempDir.resolve("hnsw.idx"));
+
+        float[] query = vectors[42];
+        assertThat(loadedExact.search(query, 5)).isEqualTo(exact.search(query, 5));
+        assertThat(loadedHnsw.search(query, 5)).isEqualTo(hnsw.search(query, 5));
+        assertThat(loadedHnsw.similarity()).isEqualTo(VectorSimilarity.DOT_PRODUCT);
+
+        float[] extra = new float[dimensions];
+        extra[0] = 100;
+        assertThat(loadedHnsw.add(extra)).isEqualTo(500);
+        assertThat(loadedHnsw.search(extra, 1).get(0).getId()).isEqualTo(500);
+    }
+
+    @Test
+    void load_shouldRejectCorruptSnapshots() throws Exception {
+        int dimensions = 4;
+        HnswIndex hnsw = new HnswIndex(dimensions, VectorSimilarity.COSINE);
+        for (float[] vector : randomVectors(50, dimensions, 4)) {
+            hnsw.add(vector);
+        }
+        Path file = tempDir.resolve("hnsw.idx");
+        hnsw.save(file);
+        byte[] snapshot = Files.readAllBytes(file);
+        int graphStart = Snapshots.PREFIX_BYTES + VectorStorage.HEADER_BYTES + 50 * dimensions * Float.BYTES;
+
+        assertCorrupt(snapshot, buffer -> buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(4, 99),
+                "Unknown vector similarity 99");
+        assertCorrupt(snapshot, buffer -> buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(16, -1),
+                "Implausible dimension count");
+        assertCorrupt(snapshot, buffer -> buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(20, 1_000_000),
+                "cannot hold 1000000 vectors");
+        // First neighbour of node 0, after the six graph header ints, its level count and link count
+        assertCorrupt(snapshot, buffer -> buffer.putInt(graphStart + 8 * Integer.BYTES, 50),
+                "neighbour id 50 outside [0, 49]");
+        assertCorrupt(Arrays.copyOf(snapshot, snapshot.length - 4), buffer -> {
+        }, "Truncated HNSW graph");
+    }
+
+    private void assertCorrupt(byte[] snapshot, Consumer<ByteBuffer> corruption, String message) throws Exception {
+        byte[] corrupt = snapshot.clone();
+        corruption.accept(ByteBuffer.wrap(corrupt));
+        Path file = tempDir.resolve("corrupt.idx");
+        Files.write(file, corrupt);
+        assertThatThrownBy(() -> HnswIndex.load(file)).isInstanceOf(IOException.class).hasMessageContaining(message);
+    }
+
+    static double recall(VectorIndex exact, VectorIndex approximate, float[][] queries, int k) {
+        int found = 0;
+        for (float[] query : queries) {
+            Set<Integer> expected = new HashSet<>();
+            exact.search(query, k).forEach(r -> expected.add(r.getId()));
+            for (SearchResult result : approximate.search(query, k)) {
+                if (expected.contains(result.getId())) {
+                    found++;
+                }
+            }
+        }
+        return (double) found / (queries.length * k);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.bayazit.ollama.vector;
+
+import io.github.bayazit.ollama.client.OllamaClient;
+import io.github.bayazit.ollama.model.EmbedRequest;
+import io.github.bayazit.ollama.model.EmbedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class VectorStoreTest {
+
+    private static List<Double> embedding(String text) {
+        return switch (text) {
+            case "cats" -> List.of(1.0, 0.0, 0.0);
+            case "dogs" -> List.of(0.8, 0.6, 0.0);
+            case "stocks" -> List.of(0.0, 0.0, 1.0);
+            default -> List.of(0.9, 0.1, 0.0);
+        };
+    }
+
+    private static OllamaClient client() {
+        OllamaClient client = mock(OllamaClient.class);
+        when(client.embed(any())).thenAnswer(invocation -> {
+            EmbedRequest request = invocation.getArgument(0);
+            return EmbedResponse.builder()
+                    .embeddings(request.getInput().stream().map(VectorStoreTest::embedding).toList())
+                    .build();
+        });
+        return client;
+    }
+
+    @Test
+    void similaritySearch_shouldEmbedQueryAndReturnStoredTexts() {
+        OllamaClient client = client();
+        VectorStore store = new VectorStore(client, "nomic-embed-text",
+                new BruteForceIndex(3, VectorSimilarity.COSINE), 2);
+
+        assertThat(store.addAll(List.of("cats", "dogs", "stocks"))).containsExactly(0, 1, 2);
+        List<VectorStore.Match> matches = store.similaritySearch("kittens", 2);
+
+        assertThat(matches).extracting(VectorStore.Match::getText).containsExactly("cats", "dogs");
+        // Two batches for the corpus, one for the query
+        verify(client, times(3)).embed(any());
+    }
+
+    @Test
+    void save_shouldRestoreTextsForSnapshotAndKeyNewTextsById(@TempDir Path dir) throws Exception {
+        VectorStore store = new VectorStore(client(), "nomic-embed-text",
+                new BruteForceIndex(3, VectorSimilarity.COSINE));
+        store.addAll(List.of("stocks", "dogs"));
+        store.save(dir.resolve("index.bin"), dir.resolve("texts.bin"));
+
+        VectorStore restored = new VectorStore(client(), "nomic-embed-text",
+                BruteForceIndex.load(dir.resolve("index.bin")));
+        assertThat(restored.add("cats")).isEqualTo(2);
+        assertThat(restored.similaritySearch("kittens", 3)).extracting(VectorStore.Match::getText)
+                .containsExactly("cats", null, null);
+
+        restored.loadTexts(dir.resolve("texts.bin"));
+        assertThat(restored.similaritySearch("kittens", 3)).extracting(VectorStore.Match::getText)
+                .containsExactly("cats", "dogs", "stocks");
+    }
+}